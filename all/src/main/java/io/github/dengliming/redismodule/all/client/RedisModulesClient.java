@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.all.client;
+
+import io.github.dengliming.redismodule.common.BaseRedissonClient;
+import io.github.dengliming.redismodule.redisai.RedisAI;
+import io.github.dengliming.redismodule.redisbloom.BloomFilter;
+import io.github.dengliming.redismodule.redisbloom.CountMinSketch;
+import io.github.dengliming.redismodule.redisbloom.CuckooFilter;
+import io.github.dengliming.redismodule.redisbloom.TDigest;
+import io.github.dengliming.redismodule.redisbloom.TopKFilter;
+import io.github.dengliming.redismodule.redisearch.RediSearch;
+import io.github.dengliming.redismodule.redisgears.RedisGears;
+import io.github.dengliming.redismodule.redisgraph.RedisGraph;
+import io.github.dengliming.redismodule.redisgraph.RedisGraphBatch;
+import io.github.dengliming.redismodule.redisjson.RedisJSON;
+import io.github.dengliming.redismodule.redisjson.RedisJSONBatch;
+import io.github.dengliming.redismodule.redistimeseries.RedisTimeSeries;
+import io.github.dengliming.redismodule.redistimeseries.RedisTimeSeriesBatch;
+import org.redisson.Redisson;
+import org.redisson.api.BatchOptions;
+import org.redisson.config.Config;
+
+/**
+ * A single client for all supported modules.
+ * <p>
+ * Every facade returned by this client is backed by the same Redisson instance, so all modules share one
+ * connection pool, one Netty event loop group and one cluster topology refresher.
+ *
+ * @author dengliming
+ */
+public class RedisModulesClient extends BaseRedissonClient {
+
+    public RedisModulesClient(Config config) {
+        super(config);
+    }
+
+    public RedisModulesClient(Redisson redisson) {
+        super(redisson);
+    }
+
+    public RedisAI getRedisAI() {
+        return new RedisAI(getCommandExecutor());
+    }
+
+    public BloomFilter getRBloomFilter(String name) {
+        return new BloomFilter(getCommandExecutor(), name);
+    }
+
+    public CountMinSketch getCountMinSketch(String name) {
+        return new CountMinSketch(getCommandExecutor(), name);
+    }
+
+    public CuckooFilter getCuckooFilter(String name) {
+        return new CuckooFilter(getCommandExecutor(), name);
+    }
+
+    public TopKFilter getTopKFilter(String name) {
+        return new TopKFilter(getCommandExecutor(), name);
+    }
+
+    public TDigest getTDigest(String name) {
+        return new TDigest(getCommandExecutor(), name);
+    }
+
+    public RediSearch getRediSearch(String name) {
+        return new RediSearch(getCommandExecutor(), name);
+    }
+
+    public RedisGears getRedisGears() {
+        return new RedisGears(getCommandExecutor());
+    }
+
+    public RedisGraph getRedisGraph() {
+        return new RedisGraph(getCommandExecutor());
+    }
+
+    public RedisGraphBatch createRedisGraphBatch() {
+        return this.createRedisGraphBatch(BatchOptions.defaults());
+    }
+
+    public RedisGraphBatch createRedisGraphBatch(BatchOptions options) {
+        return new RedisGraphBatch(getCommandExecutor(), options);
+    }
+
+    public RedisJSON getRedisJSON() {
+        return new RedisJSON(getCommandExecutor());
+    }
+
+    public RedisJSONBatch createRedisJSONBatch() {
+        return this.createRedisJSONBatch(BatchOptions.defaults());
+    }
+
+    public RedisJSONBatch createRedisJSONBatch(BatchOptions options) {
+        return new RedisJSONBatch(getCommandExecutor(), options);
+    }
+
+    public RedisTimeSeries getRedisTimeSeries() {
+        return new RedisTimeSeries(getCommandExecutor());
+    }
+
+    public RedisTimeSeriesBatch createRedisTimeSeriesBatch() {
+        return this.createRedisTimeSeriesBatch(BatchOptions.defaults());
+    }
+
+    public RedisTimeSeriesBatch createRedisTimeSeriesBatch(BatchOptions options) {
+        return new RedisTimeSeriesBatch(getCommandExecutor(), options);
+    }
+}
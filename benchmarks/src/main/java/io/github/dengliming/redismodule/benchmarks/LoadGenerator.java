@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.benchmarks;
+
+import io.github.dengliming.redismodule.all.client.RedisModulesClient;
+import io.github.dengliming.redismodule.common.test.StubRedisServer;
+import io.github.dengliming.redismodule.redisearch.search.SearchOptions;
+import io.github.dengliming.redismodule.redisjson.args.GetArgs;
+import org.redisson.api.RFuture;
+import org.redisson.config.Config;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Drives every module client against an in-process {@link StubRedisServer} and reports ops/sec and
+ * p50/p99 latency of the whole client stack: argument encoding, Netty, reply decoding and future completion.
+ * <p>
+ * Options: {@code --threads=16 --seconds=10 --warmup=2 --latency-micros=0}, where threads is the number of
+ * closed-loop callers and latency-micros the delay the stub adds to every reply.
+ *
+ * @author dengliming
+ */
+public final class LoadGenerator {
+
+    private static final String[] BLOOM_ITEMS = {"a", "b", "c", "d", "e", "f", "g", "h", "i", "j"};
+
+    private final int threads;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final PrintStream out;
+
+    private LoadGenerator(int threads, long warmupSeconds, long durationSeconds, PrintStream out) {
+        this.threads = threads;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "10"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "2"));
+        long latencyMicros = Long.parseLong(options.getOrDefault("latency-micros", "0"));
+
+        try (StubRedisServer server = new StubRedisServer()
+                .reply("FT.SEARCH", Replies.search(10))
+                .reply("TS.MRANGE", Replies.mrange(10, 100))
+                .reply("GRAPH.QUERY", Replies.graphQuery(10))
+                .reply("JSON.GET", Replies.jsonGet(20))
+                .reply("AI.TENSORGET", Replies.tensorBlob(1024))
+                .reply("BF.MEXISTS", Replies.bloomExists(BLOOM_ITEMS.length))
+                .latency(latencyMicros, TimeUnit.MICROSECONDS)
+                .start()) {
+            Config config = new Config();
+            config.useSingleServer()
+                    .setAddress(server.getAddress())
+                    .setConnectionMinimumIdleSize(threads)
+                    .setConnectionPoolSize(threads);
+            RedisModulesClient client = new RedisModulesClient(config);
+            try {
+                new LoadGenerator(threads, warmup, seconds, System.out).run(scenarios(client));
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    private static Map<String, Supplier<RFuture<?>>> scenarios(RedisModulesClient client) {
+        Map<String, Supplier<RFuture<?>>> scenarios = new LinkedHashMap<>();
+        scenarios.put("FT.SEARCH", () -> client.getRediSearch("idx").searchAsync("*", new SearchOptions()));
+        scenarios.put("TS.MRANGE", () -> client.getRedisTimeSeries().mrangeAsync(0, Long.MAX_VALUE, null, "area=area-1"));
+        scenarios.put("GRAPH.QUERY", () -> client.getRedisGraph().queryAsync("graph", "MATCH (n) RETURN n, n.name, n.score", 0));
+        scenarios.put("JSON.GET", () -> client.getRedisJSON().getAsync("product:42", Map.class, new GetArgs().path(".")));
+        scenarios.put("AI.TENSORGET", () -> client.getRedisAI().getTensorAsync("tensor"));
+        scenarios.put("BF.MEXISTS", () -> client.getRBloomFilter("bloom").existsMultiAsync(BLOOM_ITEMS));
+        return scenarios;
+    }
+
+    private void run(Map<String, Supplier<RFuture<?>>> scenarios) throws InterruptedException {
+        out.printf("%-14s %12s %10s %10s %10s %8s%n", "command", "ops/s", "p50(us)", "p99(us)", "max(us)", "errors");
+        for (Map.Entry<String, Supplier<RFuture<?>>> scenario : scenarios.entrySet()) {
+            measure(scenario.getValue(), warmupNanos);
+            Result result = measure(scenario.getValue(), durationNanos);
+            out.printf("%-14s %12.0f %10.1f %10.1f %10.1f %8d%n", scenario.getKey(), result.throughput(),
+                    result.percentile(0.5) / 1000d, result.percentile(0.99) / 1000d,
+                    result.percentile(1) / 1000d, result.errors);
+        }
+    }
+
+    private Result measure(Supplier<RFuture<?>> command, long nanos) throws InterruptedException {
+        List<Worker> workers = new ArrayList<>(threads);
+        long deadline = System.nanoTime() + nanos;
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(command, deadline);
+            workers.add(worker);
+            worker.start();
+        }
+
+        Result result = new Result(nanos);
+        for (Worker worker : workers) {
+            worker.join();
+            result.add(worker);
+        }
+        result.sort();
+        return result;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int index = arg.indexOf('=');
+                options.put(arg.substring(2, index), arg.substring(index + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Worker extends Thread {
+
+        private final Supplier<RFuture<?>> command;
+        private final long deadline;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker(Supplier<RFuture<?>> command, long deadline) {
+            this.command = command;
+            this.deadline = deadline;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long start;
+            while ((start = System.nanoTime()) < deadline) {
+                try {
+                    command.get().toCompletableFuture().join();
+                } catch (CompletionException e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+    }
+
+    private static final class Result {
+
+        private final long nanos;
+        private long[] latencies = new long[0];
+        private long errors;
+
+        Result(long nanos) {
+            this.nanos = nanos;
+        }
+
+        void add(Worker worker) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            errors += worker.errors;
+        }
+
+        void sort() {
+            Arrays.sort(latencies);
+        }
+
+        double throughput() {
+            return latencies.length * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+        }
+
+        long percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.benchmarks;
+
+import io.github.dengliming.redismodule.redisearch.aggregate.AggregateResult;
+import io.github.dengliming.redismodule.redisearch.protocol.RedisCommands;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.LazySearchResultDecoder;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.SearchResultDecoder;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.StringMapInfoDecoder;
+import io.github.dengliming.redismodule.redisearch.search.LazySearchResult;
+import io.github.dengliming.redismodule.redisearch.search.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.decoder.ListMultiDecoder2;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FT.SEARCH and FT.AGGREGATE replies of size documents / rows with ten fields each.
+ *
+ * @author dengliming
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RediSearchDecoderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ReplyDecoder decoder;
+    private RedisCommand<?> searchCommand;
+    private RedisCommand<?> lazySearchCommand;
+    private byte[] searchReply;
+    private byte[] aggregateReply;
+
+    @Setup
+    public void setup() {
+        decoder = new ReplyDecoder();
+        searchCommand = new RedisCommand<>("FT.SEARCH", new ListMultiDecoder2(new SearchResultDecoder(false, false), new StringMapInfoDecoder()));
+        lazySearchCommand = new RedisCommand<>("FT.SEARCH", new LazySearchResultDecoder(false, false));
+
+        searchReply = Replies.search(size);
+        aggregateReply = Replies.aggregate(size);
+    }
+
+    @Benchmark
+    public SearchResult search() throws IOException {
+        return decoder.decode(searchCommand, StringCodec.INSTANCE, searchReply);
+    }
+
+    @Benchmark
+    public LazySearchResult searchLazy() throws IOException {
+        return decoder.decode(lazySearchCommand, StringCodec.INSTANCE, searchReply);
+    }
+
+    @Benchmark
+    public AggregateResult aggregate() throws IOException {
+        return decoder.decode(RedisCommands.FT_AGGREGATE, StringCodec.INSTANCE, aggregateReply);
+    }
+}
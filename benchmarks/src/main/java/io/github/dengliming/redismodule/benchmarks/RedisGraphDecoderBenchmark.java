@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.benchmarks;
+
+import io.github.dengliming.redismodule.redisgraph.model.ResultSet;
+import io.github.dengliming.redismodule.redisgraph.protocol.RedisCommands;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compact GRAPH.QUERY replies of size records, each holding a node with three properties and two scalars.
+ *
+ * @author dengliming
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RedisGraphDecoderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ReplyDecoder decoder;
+    private byte[] reply;
+
+    @Setup
+    public void setup() {
+        decoder = new ReplyDecoder();
+
+        reply = Replies.graphQuery(size);
+    }
+
+    @Benchmark
+    public ResultSet query() throws IOException {
+        return decoder.decode(RedisCommands.GRAPH_QUERY, StringCodec.INSTANCE, reply);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.benchmarks;
+
+/**
+ * Synthetic module replies of realistic shape, shared by the decoder benchmarks and the load generator.
+ *
+ * @author dengliming
+ */
+public final class Replies {
+
+    private static final int FIELDS = 10;
+    private static final int COLUMN_SCALAR = 1;
+    private static final int SCALAR_STRING = 2;
+    private static final int SCALAR_INTEGER = 3;
+    private static final int SCALAR_DOUBLE = 5;
+    private static final int SCALAR_NODE = 8;
+
+    private Replies() {
+    }
+
+    /**
+     * FT.SEARCH reply of documents with ten fields each.
+     */
+    public static byte[] search(int documents) {
+        Resp resp = new Resp().array(1 + documents * 2).integer(documents * 10L);
+        for (int i = 0; i < documents; i++) {
+            resp.bulk("doc:" + i);
+            fields(resp, i);
+        }
+        return resp.toBytes();
+    }
+
+    /**
+     * FT.AGGREGATE reply of rows with ten fields each.
+     */
+    public static byte[] aggregate(int rows) {
+        Resp resp = new Resp().array(1 + rows).integer(rows);
+        for (int i = 0; i < rows; i++) {
+            fields(resp, i);
+        }
+        return resp.toBytes();
+    }
+
+    /**
+     * Compact GRAPH.QUERY reply, each record holding a node with three properties and two scalars.
+     */
+    public static byte[] graphQuery(int records) {
+        Resp resp = new Resp().array(3);
+        resp.array(3);
+        resp.array(2).integer(COLUMN_SCALAR).bulk("n");
+        resp.array(2).integer(COLUMN_SCALAR).bulk("name");
+        resp.array(2).integer(COLUMN_SCALAR).bulk("score");
+
+        resp.array(records);
+        for (int i = 0; i < records; i++) {
+            resp.array(3);
+            resp.array(2).integer(SCALAR_NODE);
+            resp.array(3).integer(i);
+            resp.array(1).integer(0);
+            resp.array(3);
+            resp.array(3).integer(0).integer(SCALAR_STRING).bulk("person " + i);
+            resp.array(3).integer(1).integer(SCALAR_INTEGER).integer(20 + i % 50);
+            resp.array(3).integer(2).integer(SCALAR_DOUBLE).bulk(i * 0.5d);
+            resp.array(2).integer(SCALAR_STRING).bulk("name " + i);
+            resp.array(2).integer(SCALAR_DOUBLE).bulk(i * 1.25d);
+        }
+
+        resp.array(2).bulk("Cached execution: 0").bulk("Query internal execution time: 0.512 milliseconds");
+        return resp.toBytes();
+    }
+
+    /**
+     * TS.MRANGE reply of series with two labels each.
+     */
+    public static byte[] mrange(int series, int samples) {
+        Resp resp = new Resp().array(series);
+        for (int s = 0; s < series; s++) {
+            resp.array(3).bulk("temperature:" + s);
+            resp.array(2);
+            resp.array(2).bulk("sensor_id").bulk(String.valueOf(s));
+            resp.array(2).bulk("area").bulk("area-" + s % 3);
+            resp.array(samples);
+            long timestamp = 1_600_000_000_000L;
+            for (int i = 0; i < samples; i++) {
+                resp.array(2).integer(timestamp + i * 1000L).bulk(20 + (i % 100) * 0.25d);
+            }
+        }
+        return resp.toBytes();
+    }
+
+    /**
+     * AI.TENSORGET META VALUES reply of a FLOAT tensor.
+     */
+    public static byte[] tensorValues(int size) {
+        Resp resp = tensorMeta(size).bulk("values").array(size);
+        for (int i = 0; i < size; i++) {
+            resp.bulk(i * 0.001d);
+        }
+        return resp.toBytes();
+    }
+
+    /**
+     * AI.TENSORGET META BLOB reply of a FLOAT tensor.
+     */
+    public static byte[] tensorBlob(int size) {
+        StringBuilder blob = new StringBuilder(size * 4);
+        for (int i = 0; i < size * 4; i++) {
+            blob.append((char) ('a' + i % 26));
+        }
+        return tensorMeta(size).bulk("blob").bulk(blob.toString()).toBytes();
+    }
+
+    /**
+     * JSON.GET reply of a product document.
+     */
+    public static byte[] jsonGet(int attributes) {
+        StringBuilder json = new StringBuilder("{\"id\":42,\"name\":\"product\",\"attributes\":{");
+        for (int i = 0; i < attributes; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"attr").append(i).append("\":\"value ").append(i).append('"');
+        }
+        json.append("}}");
+        return new Resp().bulk(json.toString()).toBytes();
+    }
+
+    /**
+     * BF.MEXISTS reply for items.
+     */
+    public static byte[] bloomExists(int items) {
+        Resp resp = new Resp().array(items);
+        for (int i = 0; i < items; i++) {
+            resp.integer(i % 2);
+        }
+        return resp.toBytes();
+    }
+
+    /**
+     * BF.INFO reply.
+     */
+    public static byte[] bloomInfo() {
+        return new Resp().array(10)
+                .bulk("Capacity").integer(100000)
+                .bulk("Size").integer(240000)
+                .bulk("Number of filters").integer(1)
+                .bulk("Number of items inserted").integer(31234)
+                .bulk("Expansion rate").integer(2)
+                .toBytes();
+    }
+
+    private static Resp tensorMeta(int size) {
+        Resp resp = new Resp().array(6);
+        resp.bulk("dtype").bulk("FLOAT");
+        resp.bulk("shape").array(2).integer(1).integer(size);
+        return resp;
+    }
+
+    private static void fields(Resp resp, int row) {
+        resp.array(FIELDS * 2);
+        for (int f = 0; f < FIELDS; f++) {
+            resp.bulk("field" + f).bulk("value of field " + f + " in row " + row);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.CommandDecoder;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommand;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs a raw RESP reply through Redisson's {@link CommandDecoder} exactly as a connection would,
+ * including the command's {@code MultiDecoder} tree and codec, without any network involved.
+ *
+ * @author dengliming
+ */
+public class ReplyDecoder extends CommandDecoder {
+
+    private final Channel channel = new EmbeddedChannel();
+
+    public ReplyDecoder() {
+        super("redis://127.0.0.1:6379");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> R decode(RedisCommand<?> command, Codec codec, byte[] reply) throws IOException {
+        CompletableFuture<Object> promise = new CompletableFuture<>();
+        CommandData<Object, Object> data = new CommandData<>(promise, codec, (RedisCommand<Object>) command, new Object[0]);
+        ByteBuf in = Unpooled.wrappedBuffer(reply);
+        state(new State());
+        decode(in, data, null, channel, false, null);
+        return (R) promise.getNow(null);
+    }
+}
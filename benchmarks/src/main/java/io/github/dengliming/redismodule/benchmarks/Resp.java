@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds raw RESP2 replies for the benchmarks.
+ *
+ * @author dengliming
+ */
+public class Resp {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    public Resp array(int size) {
+        return line('*', String.valueOf(size));
+    }
+
+    public Resp bulk(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        line('$', String.valueOf(bytes.length));
+        out.write(bytes, 0, bytes.length);
+        return crlf();
+    }
+
+    public Resp bulk(double value) {
+        return bulk(String.valueOf(value));
+    }
+
+    public Resp integer(long value) {
+        return line(':', String.valueOf(value));
+    }
+
+    public byte[] toBytes() {
+        return out.toByteArray();
+    }
+
+    private Resp line(char type, String value) {
+        out.write(type);
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes, 0, bytes.length);
+        return crlf();
+    }
+
+    private Resp crlf() {
+        out.write('\r');
+        out.write('\n');
+        return this;
+    }
+}
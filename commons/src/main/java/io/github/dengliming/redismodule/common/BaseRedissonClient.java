@@ -16,6 +16,7 @@
 
 package io.github.dengliming.redismodule.common;
 
+import io.github.dengliming.redismodule.common.util.RAssert;
 import org.redisson.Redisson;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
@@ -23,9 +24,26 @@ import org.redisson.config.Config;
 
 public abstract class BaseRedissonClient {
     private final Redisson redisson;
+    private final boolean shared;
 
     protected BaseRedissonClient(Config config) {
         this.redisson = (Redisson) Redisson.create(config);
+        this.shared = false;
+    }
+
+    /**
+     * Create a client on top of an existing {@link Redisson} instance, so that several module clients
+     * share one connection pool, event loop group and cluster topology refresher.
+     * <p>
+     * The shared instance is owned by the caller: {@link #shutdown()} does not close it.
+     *
+     * @param redisson existing Redisson instance
+     */
+    protected BaseRedissonClient(Redisson redisson) {
+        RAssert.notNull(redisson, "redisson must not be null");
+
+        this.redisson = redisson;
+        this.shared = true;
     }
 
     public Void flushall() {
@@ -33,8 +51,17 @@ public abstract class BaseRedissonClient {
         return commandExecutor.get(commandExecutor.writeAllVoidAsync(RedisCommands.FLUSHALL));
     }
 
+    /**
+     * Shutdown the underlying Redisson instance, unless it was supplied by the caller.
+     */
     public void shutdown() {
-        redisson.shutdown();
+        if (!shared) {
+            redisson.shutdown();
+        }
+    }
+
+    public boolean isShared() {
+        return shared;
     }
 
     public Redisson getRedisson() {
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.common.util;
+
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.connection.ConnectionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for splitting multi-key commands by cluster hash slot.
+ *
+ * @author dengliming
+ */
+public final class SlotUtil {
+
+    private SlotUtil() {
+    }
+
+    /**
+     * Group the positions of keys by their hash slot.
+     * <p>
+     * Slots keep the order in which they are first seen and the positions inside a slot keep the caller's order,
+     * so replies can be written back into the original positions. Outside cluster mode all keys share one slot.
+     *
+     * @param commandExecutor
+     * @param keys
+     * @return slot to positions of the keys in that slot
+     */
+    public static Map<Integer, List<Integer>> groupBySlot(CommandAsyncExecutor commandExecutor, List<String> keys) {
+        RAssert.notNull(keys, "keys must not be null");
+
+        ConnectionManager connectionManager = commandExecutor.getConnectionManager();
+        Map<Integer, List<Integer>> slots = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = connectionManager.calcSlot(keys.get(i));
+            slots.computeIfAbsent(slot, k -> new ArrayList<>()).add(i);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.common.test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process NIO server speaking RESP2 that answers every command with a canned reply, so the whole client stack
+ * can be exercised without a Redis server.
+ * <p>
+ * Replies are looked up by command name, PING answers PONG and any other command answers OK.
+ * With a latency set, every reply is delayed by it while keeping the order of replies on a connection.
+ *
+ * @author dengliming
+ */
+public class StubRedisServer implements Closeable {
+
+    private static final byte[] PONG = "+PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OK = "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Map<String, byte[]> replies = new ConcurrentHashMap<>();
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final LongAdder commandCount = new LongAdder();
+    private final ScheduledExecutorService delayer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stub-redis-delayer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long latencyMicros;
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread ioThread;
+
+    /**
+     * Register the raw RESP reply returned for a command.
+     *
+     * @param command command name, e.g. FT.SEARCH
+     * @param reply   RESP encoded reply
+     * @return this server
+     */
+    public StubRedisServer reply(String command, byte[] reply) {
+        replies.put(command.toUpperCase(Locale.ROOT), reply);
+        return this;
+    }
+
+    public StubRedisServer latency(long latency, TimeUnit unit) {
+        this.latencyMicros = unit.toMicros(latency);
+        return this;
+    }
+
+    /**
+     * Start listening on an ephemeral port of the loopback interface.
+     *
+     * @return this server
+     * @throws IOException if the port can not be bound
+     */
+    public StubRedisServer start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        ioThread = new Thread(this::loop, "stub-redis-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+        return this;
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return address to configure a Redisson client with
+     */
+    public String getAddress() {
+        return "redis://127.0.0.1:" + getPort();
+    }
+
+    public long getCommandCount() {
+        return commandCount.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        delayer.shutdownNow();
+        if (selector != null) {
+            selector.wakeup();
+            try {
+                ioThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    private void loop() {
+        try {
+            while (running) {
+                selector.select();
+                Connection pending;
+                while ((pending = pendingWrites.poll()) != null) {
+                    pending.flush();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+        }
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            SocketChannel channel = serverChannel.accept();
+            if (channel != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                SelectionKey clientKey = channel.register(selector, SelectionKey.OP_READ);
+                clientKey.attach(new Connection(channel, clientKey));
+            }
+            return;
+        }
+
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (IOException e) {
+            key.cancel();
+            key.channel().close();
+        }
+    }
+
+    private byte[] replyFor(List<String> command) {
+        commandCount.increment();
+        String name = command.isEmpty() ? "" : command.get(0).toUpperCase(Locale.ROOT);
+        byte[] reply = replies.get(name);
+        if (reply != null) {
+            return reply;
+        }
+        return "PING".equals(name) ? PONG : OK;
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+        private ByteBuffer input = ByteBuffer.allocate(16 * 1024);
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void read() throws IOException {
+            if (!input.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+                input.flip();
+                larger.put(input);
+                input = larger;
+            }
+            if (channel.read(input) < 0) {
+                throw new IOException("Connection closed");
+            }
+
+            input.flip();
+            List<String> command;
+            while ((command = parse()) != null) {
+                send(replyFor(command));
+            }
+            input.compact();
+        }
+
+        void send(byte[] reply) {
+            long latency = latencyMicros;
+            if (latency <= 0) {
+                output.add(ByteBuffer.wrap(reply));
+                flushQuietly();
+                return;
+            }
+            delayer.schedule(() -> {
+                output.add(ByteBuffer.wrap(reply));
+                pendingWrites.add(this);
+                selector.wakeup();
+            }, latency, TimeUnit.MICROSECONDS);
+        }
+
+        void flush() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = output.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                output.poll();
+            }
+            if (key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private void flushQuietly() {
+            try {
+                flush();
+            } catch (IOException e) {
+                key.cancel();
+            }
+        }
+
+        /**
+         * Parse one multi-bulk command from the input, leaving the position untouched if it is incomplete.
+         */
+        private List<String> parse() {
+            int start = input.position();
+            if (!input.hasRemaining()) {
+                return null;
+            }
+            if (input.get(start) != '*') {
+                // inline command
+                String line = readLine();
+                if (line == null) {
+                    return null;
+                }
+                List<String> command = new ArrayList<>();
+                for (String part : line.trim().split(" +")) {
+                    command.add(part);
+                }
+                return command;
+            }
+
+            input.get();
+            String count = readLine();
+            if (count == null) {
+                input.position(start);
+                return null;
+            }
+            int size = Integer.parseInt(count);
+            List<String> command = new ArrayList<>(Math.max(size, 0));
+            for (int i = 0; i < size; i++) {
+                if (input.remaining() < 1) {
+                    input.position(start);
+                    return null;
+                }
+                input.get();
+                String length = readLine();
+                if (length == null || input.remaining() < Integer.parseInt(length) + 2) {
+                    input.position(start);
+                    return null;
+                }
+                byte[] bytes = new byte[Integer.parseInt(length)];
+                input.get(bytes);
+                input.position(input.position() + 2);
+                command.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return command;
+        }
+
+        private String readLine() {
+            int start = input.position();
+            for (int i = start; i < input.limit() - 1; i++) {
+                if (input.get(i) == '\r' && input.get(i + 1) == '\n') {
+                    byte[] bytes = new byte[i - start];
+                    input.get(bytes);
+                    input.position(i + 2);
+                    return new String(bytes, StandardCharsets.US_ASCII);
+                }
+            }
+            return null;
+        }
+    }
+}
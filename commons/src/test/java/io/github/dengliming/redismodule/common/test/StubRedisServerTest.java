@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.common.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StubRedisServerTest {
+
+    @Test
+    public void testReply() throws IOException {
+        try (StubRedisServer server = new StubRedisServer()
+                .reply("bf.mexists", ":1\r\n".getBytes(StandardCharsets.US_ASCII))
+                .latency(20, TimeUnit.MILLISECONDS)
+                .start();
+             Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            long start = System.nanoTime();
+            out.write("*3\r\n$10\r\nBF.MEXISTS\r\n$3\r\nbf1\r\n$1\r\na\r\n*1\r\n$4\r\nPING\r\n*1\r\n$3\r\nSET\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            assertThat(read(socket.getInputStream(), 16)).isEqualTo(":1\r\n+PONG\r\n+OK\r\n");
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+            assertThat(server.getCommandCount()).isEqualTo(3);
+        }
+    }
+
+    private static String read(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = in.read(bytes, read, length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        return new String(bytes, 0, read, StandardCharsets.US_ASCII);
+    }
+}
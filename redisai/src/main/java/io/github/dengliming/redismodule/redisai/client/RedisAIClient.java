@@ -18,6 +18,7 @@ package io.github.dengliming.redismodule.redisai.client;
 
 import io.github.dengliming.redismodule.common.BaseRedissonClient;
 import io.github.dengliming.redismodule.redisai.RedisAI;
+import org.redisson.Redisson;
 import org.redisson.config.Config;
 
 /**
@@ -28,6 +29,10 @@ public class RedisAIClient extends BaseRedissonClient {
         super(config);
     }
 
+    public RedisAIClient(Redisson redisson) {
+        super(redisson);
+    }
+
     public RedisAI getRedisAI() {
         return new RedisAI(getCommandExecutor());
     }
@@ -22,6 +22,7 @@ import io.github.dengliming.redismodule.redisbloom.CountMinSketch;
 import io.github.dengliming.redismodule.redisbloom.CuckooFilter;
 import io.github.dengliming.redismodule.redisbloom.TDigest;
 import io.github.dengliming.redismodule.redisbloom.TopKFilter;
+import org.redisson.Redisson;
 import org.redisson.config.Config;
 
 /**
@@ -33,6 +34,10 @@ public class RedisBloomClient extends BaseRedissonClient {
         super(config);
     }
 
+    public RedisBloomClient(Redisson redisson) {
+        super(redisson);
+    }
+
     public BloomFilter getRBloomFilter(String name) {
         return new BloomFilter(getCommandExecutor(), name);
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.redisearch.aggregate.AggregateOptions;
+import io.github.dengliming.redismodule.redisearch.aggregate.AggregateResult;
+import org.redisson.api.RFuture;
+import org.redisson.command.CommandAsyncExecutor;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the rows of FT.AGGREGATE WITHCURSOR, reading the following batches with FT.CURSOR READ.
+ * <p>
+ * The server deletes the cursor once it is read to the end, {@link #close()} deletes it with FT.CURSOR DEL when
+ * iteration stops early.
+ *
+ * @author dengliming
+ */
+public class AggregateCursorIterator implements Iterator<Map<String, Object>>, Closeable {
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final RediSearch rediSearch;
+    private final boolean prefetch;
+
+    private long cursorId;
+    private boolean closed;
+    private RFuture<AggregateResult> pending;
+    private Iterator<Map<String, Object>> rows = Collections.emptyIterator();
+
+    AggregateCursorIterator(CommandAsyncExecutor commandExecutor, RediSearch rediSearch, String query,
+                            AggregateOptions aggregateOptions, boolean prefetch) {
+        RAssert.notNull(aggregateOptions, "AggregateOptions must be not null");
+        RAssert.isTrue(aggregateOptions.isWithCursor(), "AggregateOptions must be withCursor");
+
+        this.commandExecutor = commandExecutor;
+        this.rediSearch = rediSearch;
+        this.prefetch = prefetch;
+        this.pending = rediSearch.aggregateAsync(query, aggregateOptions);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!rows.hasNext()) {
+            if (pending == null) {
+                if (closed || cursorId == 0) {
+                    return false;
+                }
+                pending = rediSearch.readCursorAsync(cursorId);
+            }
+
+            AggregateResult result = commandExecutor.get(pending);
+            pending = null;
+            cursorId = result.getCursorId();
+            rows = result.getRows().iterator();
+            if (prefetch && cursorId != 0) {
+                pending = rediSearch.readCursorAsync(cursorId);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return rows.next();
+    }
+
+    /**
+     * @return the current cursor, 0 once all rows were read
+     */
+    public long getCursorId() {
+        return cursorId;
+    }
+
+    /**
+     * Stop iterating and delete the cursor on the server if rows are left.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        rows = Collections.emptyIterator();
+        if (pending != null) {
+            // the cursor id of a read in progress is only known once it completes
+            cursorId = commandExecutor.get(pending).getCursorId();
+            pending = null;
+        }
+        if (cursorId != 0) {
+            commandExecutor.get(rediSearch.deleteCursorAsync(cursorId));
+            cursorId = 0;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.redisearch.protocol.Keywords;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.SearchResultDecoder;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.StringMapInfoDecoder;
+import io.github.dengliming.redismodule.redisearch.search.SearchOptions;
+import io.github.dengliming.redismodule.redisearch.search.SearchResult;
+import io.github.dengliming.redismodule.redisearch.search.VectorQuery;
+import org.redisson.api.RFuture;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.decoder.ListMultiDecoder2;
+import org.redisson.command.CommandAsyncExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FT.SEARCH query with {@code $name} placeholders, compiled once and executed with different parameter values.
+ * <p>
+ * The arguments up to the parameter values are built and encoded when the query is prepared, each execution only
+ * copies them and binds the values through PARAMS with DIALECT 2 or later, so no query string is built or escaped
+ * per call. Instances are immutable and can be shared between threads.
+ *
+ * @author dengliming
+ */
+public class PreparedQuery {
+
+    private static final int MIN_DIALECT = 2;
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final String indexName;
+    private final String[] paramNames;
+    private final Object[] template;
+    private final int valuesOffset;
+    private final RedisCommand<SearchResult> command;
+
+    PreparedQuery(CommandAsyncExecutor commandExecutor, String indexName, String query, SearchOptions searchOptions) {
+        RAssert.notNull(searchOptions, "SearchOptions must be not null");
+        RAssert.isTrue(searchOptions.getParams() == null, "params are bound when the query is executed");
+        RAssert.isTrue(searchOptions.getDialect() == 0 || searchOptions.getDialect() >= MIN_DIALECT,
+                "dialect must be at least " + MIN_DIALECT);
+
+        this.commandExecutor = commandExecutor;
+        this.indexName = indexName;
+        this.paramNames = parseParamNames(query);
+
+        List<Object> args = new ArrayList<>();
+        args.add(indexName);
+        args.add(query);
+        searchOptions.build(args);
+        if (searchOptions.getDialect() == 0) {
+            args.add(Keywords.DIALECT);
+            args.add(MIN_DIALECT);
+        }
+        if (paramNames.length > 0) {
+            args.add(Keywords.PARAMS);
+            args.add(paramNames.length * 2);
+        }
+        this.valuesOffset = args.size() + 1;
+        for (String paramName : paramNames) {
+            args.add(paramName);
+            args.add(null);
+        }
+
+        this.template = new Object[args.size()];
+        for (int i = 0; i < template.length; i++) {
+            Object arg = args.get(i);
+            template[i] = arg == null || arg instanceof byte[] ? arg : arg.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        this.command = new RedisCommand<>("FT.SEARCH", new ListMultiDecoder2(
+                new SearchResultDecoder(searchOptions.isWithScores(), searchOptions.isNoContent()), new StringMapInfoDecoder()));
+    }
+
+    /**
+     * @return the placeholder names in order of first appearance, without {@code $}
+     */
+    public String[] getParamNames() {
+        return paramNames.clone();
+    }
+
+    /**
+     * Execute the query.
+     *
+     * @param values one value per placeholder in the order of {@link #getParamNames()}, a float[] is bound as a
+     *               FLOAT32 vector blob
+     * @return
+     */
+    public SearchResult search(Object... values) {
+        return commandExecutor.get(searchAsync(values));
+    }
+
+    public RFuture<SearchResult> searchAsync(Object... values) {
+        RAssert.notNull(values, "values must not be null");
+        RAssert.isTrue(values.length == paramNames.length,
+                "expected " + paramNames.length + " values for " + Arrays.toString(paramNames));
+
+        Object[] args = template.clone();
+        for (int i = 0; i < values.length; i++) {
+            args[valuesOffset + i * 2] = bind(paramNames[i], values[i]);
+        }
+        return commandExecutor.readAsync(indexName, StringCodec.INSTANCE, command, args);
+    }
+
+    /**
+     * Execute the query.
+     *
+     * @param values value of every placeholder by name, without {@code $}
+     * @return
+     */
+    public SearchResult search(Map<String, Object> values) {
+        return commandExecutor.get(searchAsync(values));
+    }
+
+    public RFuture<SearchResult> searchAsync(Map<String, Object> values) {
+        RAssert.notNull(values, "values must not be null");
+
+        Object[] orderedValues = new Object[paramNames.length];
+        for (int i = 0; i < paramNames.length; i++) {
+            orderedValues[i] = values.get(paramNames[i]);
+        }
+        return searchAsync(orderedValues);
+    }
+
+    private static Object bind(String name, Object value) {
+        RAssert.notNull(value, "value of $" + name + " must not be null");
+
+        if (value instanceof float[]) {
+            return VectorQuery.toBlob((float[]) value);
+        }
+        return value;
+    }
+
+    /**
+     * Collect the {@code $name} placeholders, skipping attribute names such as {@code $weight:}.
+     */
+    static String[] parseParamNames(String query) {
+        Set<String> names = new LinkedHashSet<>();
+        int length = query.length();
+        for (int i = 0; i < length; i++) {
+            if (query.charAt(i) != '$') {
+                continue;
+            }
+            int end = i + 1;
+            while (end < length && (Character.isLetterOrDigit(query.charAt(end)) || query.charAt(end) == '_')) {
+                end++;
+            }
+            int next = end;
+            while (next < length && query.charAt(next) == ' ') {
+                next++;
+            }
+            if (end > i + 1 && (next == length || query.charAt(next) != ':')) {
+                names.add(query.substring(i + 1, end));
+            }
+            i = end - 1;
+        }
+        return names.toArray(new String[0]);
+    }
+}
@@ -31,13 +31,20 @@ import io.github.dengliming.redismodule.redisearch.index.schema.Field;
 import io.github.dengliming.redismodule.redisearch.index.schema.Schema;
 import io.github.dengliming.redismodule.redisearch.index.schema.TagField;
 import io.github.dengliming.redismodule.redisearch.index.schema.TextField;
+import io.github.dengliming.redismodule.redisearch.index.schema.VectorField;
 import io.github.dengliming.redismodule.redisearch.protocol.Keywords;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.LazySearchResultDecoder;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.ProfileDecoder;
 import io.github.dengliming.redismodule.redisearch.protocol.decoder.SearchResultDecoder;
 import io.github.dengliming.redismodule.redisearch.protocol.decoder.StringMapInfoDecoder;
+import io.github.dengliming.redismodule.redisearch.search.LazySearchResult;
 import io.github.dengliming.redismodule.redisearch.search.MisspelledTerm;
+import io.github.dengliming.redismodule.redisearch.search.ProfileResult;
+import io.github.dengliming.redismodule.redisearch.search.ResultMapper;
 import io.github.dengliming.redismodule.redisearch.search.SearchOptions;
 import io.github.dengliming.redismodule.redisearch.search.SearchResult;
 import io.github.dengliming.redismodule.redisearch.search.SpellCheckOptions;
+import io.github.dengliming.redismodule.redisearch.search.VectorQuery;
 import org.redisson.RedissonObject;
 import org.redisson.api.RFuture;
 import org.redisson.client.codec.Codec;
@@ -45,15 +52,21 @@ import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.decoder.ListMultiDecoder2;
 import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_ADD;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_ADDHASH;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_AGGREGATE;
+import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_AGGREGATE_CURSOR;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_ALIASADD;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_ALIASDEL;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_ALIASUPDATE;
@@ -62,6 +75,8 @@ import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_CONFIG_HELP;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_CONFIG_SET;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_CREATE;
+import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_CURSOR_DEL;
+import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_CURSOR_READ;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_DEL;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_DICTADD;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_DICTDEL;
@@ -72,6 +87,7 @@ import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_INFO;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_LIST;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_MGET;
+import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_PROFILE_AGGREGATE;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_SPELLCHECK;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_SUGADD;
 import static io.github.dengliming.redismodule.redisearch.protocol.RedisCommands.FT_SUGDEL;
@@ -162,6 +178,9 @@ public class RediSearch extends RedissonObject {
                     args.add(textField.getPhonetic().name());
                 }
                 break;
+            case VECTOR:
+                args.addAll(((VectorField) field).getAttributes());
+                break;
             default:
                 break;
         }
@@ -629,6 +648,101 @@ public class RediSearch extends RedissonObject {
         );
     }
 
+    /**
+     * Runs a search query mapping each document to an object, see {@link ResultMapper}.
+     *
+     * @param query
+     * @param searchOptions
+     * @param mapper
+     * @return
+     */
+    public <T> List<T> search(String query, SearchOptions searchOptions, ResultMapper<T> mapper) {
+        return get(searchAsync(query, searchOptions, mapper));
+    }
+
+    public <T> RFuture<List<T>> searchAsync(String query, SearchOptions searchOptions, ResultMapper<T> mapper) {
+        RAssert.notNull(mapper, "ResultMapper must be not null");
+
+        RFuture<LazySearchResult> future = searchLazyAsync(query, searchOptions);
+        return new CompletableFutureWrapper<>(future.toCompletableFuture().thenApply(result -> result.map(mapper)));
+    }
+
+    /**
+     * Runs a search query keeping the fields of each document as raw values, which are only converted to Strings
+     * when read. Cheaper than {@link #search(String, SearchOptions)} when only some fields of the hits are used or
+     * the hits are mapped with a {@link ResultMapper}.
+     *
+     * @param query
+     * @param searchOptions
+     * @return
+     */
+    public LazySearchResult searchLazy(String query, SearchOptions searchOptions) {
+        return get(searchLazyAsync(query, searchOptions));
+    }
+
+    public RFuture<LazySearchResult> searchLazyAsync(String query, SearchOptions searchOptions) {
+        checkQueryArgument(query);
+        RAssert.notNull(searchOptions, "SearchOptions must be not null");
+
+        List<Object> args = new ArrayList<>();
+        args.add(getName());
+        args.add(query);
+        searchOptions.build(args);
+        RedisCommand command = new RedisCommand<>("FT.SEARCH",
+                new LazySearchResultDecoder(searchOptions.isWithScores(), searchOptions.isNoContent()));
+        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, command, args.toArray());
+    }
+
+    /**
+     * Compile a query with {@code $name} placeholders once, to execute it with different parameter values.
+     *
+     * @param query
+     * @return
+     */
+    public PreparedQuery prepareSearch(String query) {
+        return prepareSearch(query, new SearchOptions());
+    }
+
+    /**
+     * Compile a query with {@code $name} placeholders once, to execute it with different parameter values.
+     *
+     * @param query
+     * @param searchOptions options shared by every execution, without params
+     * @return
+     */
+    public PreparedQuery prepareSearch(String query, SearchOptions searchOptions) {
+        checkQueryArgument(query);
+
+        return new PreparedQuery(commandExecutor, getName(), query, searchOptions);
+    }
+
+    /**
+     * Runs a KNN or range query on a vector field.
+     *
+     * @param vectorQuery
+     * @return
+     */
+    public SearchResult search(VectorQuery vectorQuery) {
+        return search(vectorQuery, new SearchOptions());
+    }
+
+    /**
+     * Runs a KNN or range query on a vector field.
+     *
+     * @param vectorQuery
+     * @param searchOptions the query vector, dialect, sorting and paging are added to a copy of it
+     * @return
+     */
+    public SearchResult search(VectorQuery vectorQuery, SearchOptions searchOptions) {
+        return get(searchAsync(vectorQuery, searchOptions));
+    }
+
+    public RFuture<SearchResult> searchAsync(VectorQuery vectorQuery, SearchOptions searchOptions) {
+        RAssert.notNull(vectorQuery, "VectorQuery must be not null");
+
+        return searchAsync(vectorQuery.getQuery(), vectorQuery.applyTo(searchOptions));
+    }
+
     /**
      * Runs a search query on an index, and performs aggregate transformations on the results.
      *
@@ -648,9 +762,174 @@ public class RediSearch extends RedissonObject {
         args.add(getName());
         args.add(query);
         aggregateOptions.build(args);
+        if (aggregateOptions.isWithCursor()) {
+            // cursors live on the node which ran the query, keep them on the master so reads find them
+            return commandExecutor.writeAsync(getName(), StringCodec.INSTANCE, FT_AGGREGATE_CURSOR, args.toArray());
+        }
         return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, FT_AGGREGATE, args.toArray());
     }
 
+    /**
+     * Runs an aggregation mapping each row to an object, see {@link ResultMapper}.
+     *
+     * @param query
+     * @param aggregateOptions
+     * @param mapper
+     * @return
+     */
+    public <T> List<T> aggregate(String query, AggregateOptions aggregateOptions, ResultMapper<T> mapper) {
+        return get(aggregateAsync(query, aggregateOptions, mapper));
+    }
+
+    public <T> RFuture<List<T>> aggregateAsync(String query, AggregateOptions aggregateOptions, ResultMapper<T> mapper) {
+        RAssert.notNull(mapper, "ResultMapper must be not null");
+        RAssert.notNull(aggregateOptions, "AggregateOptions must be not null");
+        RAssert.isTrue(!aggregateOptions.isWithCursor(), "Map the rows of a cursor from aggregateIterator instead");
+
+        RFuture<AggregateResult> future = aggregateAsync(query, aggregateOptions);
+        return new CompletableFutureWrapper<>(future.toCompletableFuture()
+                .thenApply(result -> mapper.mapRows(result.getRows())));
+    }
+
+    /**
+     * Read the next rows of an aggregate cursor.
+     *
+     * @param cursorId
+     * @return the rows and the cursor to continue with, 0 once all rows were read
+     */
+    public AggregateResult readCursor(long cursorId) {
+        return get(readCursorAsync(cursorId));
+    }
+
+    public RFuture<AggregateResult> readCursorAsync(long cursorId) {
+        return readCursorAsync(cursorId, 0);
+    }
+
+    /**
+     * Read the next rows of an aggregate cursor.
+     *
+     * @param cursorId
+     * @param count    rows to read, 0 to use the count the cursor was created with
+     * @return the rows and the cursor to continue with, 0 once all rows were read
+     */
+    public AggregateResult readCursor(long cursorId, int count) {
+        return get(readCursorAsync(cursorId, count));
+    }
+
+    public RFuture<AggregateResult> readCursorAsync(long cursorId, int count) {
+        RAssert.isTrue(count >= 0, "count must not be negative");
+
+        List<Object> args = new ArrayList<>();
+        args.add(getName());
+        args.add(cursorId);
+        if (count > 0) {
+            args.add(Keywords.COUNT);
+            args.add(count);
+        }
+        return commandExecutor.writeAsync(getName(), StringCodec.INSTANCE, FT_CURSOR_READ, args.toArray());
+    }
+
+    /**
+     * Delete an aggregate cursor which was not read to the end.
+     *
+     * @param cursorId
+     * @return
+     */
+    public boolean deleteCursor(long cursorId) {
+        return get(deleteCursorAsync(cursorId));
+    }
+
+    public RFuture<Boolean> deleteCursorAsync(long cursorId) {
+        return commandExecutor.writeAsync(getName(), StringCodec.INSTANCE, FT_CURSOR_DEL, getName(), cursorId);
+    }
+
+    /**
+     * Iterate over the rows of an aggregation through a cursor, so only one batch of rows (two with prefetch) is
+     * held in memory. The iterator should be closed if it isn't read to the end.
+     *
+     * @param query
+     * @param aggregateOptions the cursor options, {@link AggregateOptions#withCursor(int)} is required
+     * @param prefetch         read the next batch while the current one is processed
+     * @return
+     */
+    public AggregateCursorIterator aggregateIterator(String query, AggregateOptions aggregateOptions, boolean prefetch) {
+        return new AggregateCursorIterator(commandExecutor, this, query, aggregateOptions, prefetch);
+    }
+
+    /**
+     * Lazily stream the rows of an aggregation through a cursor with prefetch, closing the stream deletes the cursor.
+     *
+     * @param query
+     * @param aggregateOptions the cursor options, {@link AggregateOptions#withCursor(int)} is required
+     * @return
+     */
+    public Stream<Map<String, Object>> aggregateStream(String query, AggregateOptions aggregateOptions) {
+        AggregateCursorIterator iterator = aggregateIterator(query, aggregateOptions, true);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Runs a search query with FT.PROFILE, returning its results and where the time was spent.
+     *
+     * @param query
+     * @param searchOptions
+     * @return
+     */
+    public ProfileResult<SearchResult> profileSearch(String query, SearchOptions searchOptions) {
+        return get(profileSearchAsync(query, searchOptions, false));
+    }
+
+    /**
+     * @param limited only profile the first result of iterators with many children, to keep the reply small
+     */
+    public RFuture<ProfileResult<SearchResult>> profileSearchAsync(String query, SearchOptions searchOptions, boolean limited) {
+        checkQueryArgument(query);
+        RAssert.notNull(searchOptions, "SearchOptions must be not null");
+
+        List<Object> args = profileArgs(Keywords.SEARCH, query, limited);
+        searchOptions.build(args);
+        RedisCommand command = new RedisCommand<>("FT.PROFILE", new ProfileDecoder<>(
+                new SearchResultDecoder(searchOptions.isWithScores(), searchOptions.isNoContent())));
+        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, command, args.toArray());
+    }
+
+    /**
+     * Runs an aggregation with FT.PROFILE, returning its results and where the time was spent.
+     *
+     * @param query
+     * @param aggregateOptions
+     * @return
+     */
+    public ProfileResult<AggregateResult> profileAggregate(String query, AggregateOptions aggregateOptions) {
+        return get(profileAggregateAsync(query, aggregateOptions, false));
+    }
+
+    /**
+     * @param limited only profile the first result of iterators with many children, to keep the reply small
+     */
+    public RFuture<ProfileResult<AggregateResult>> profileAggregateAsync(String query, AggregateOptions aggregateOptions, boolean limited) {
+        checkQueryArgument(query);
+        RAssert.notNull(aggregateOptions, "AggregateOptions must be not null");
+        RAssert.isTrue(!aggregateOptions.isWithCursor(), "FT.PROFILE doesn't support cursors");
+
+        List<Object> args = profileArgs(Keywords.AGGREGATE, query, limited);
+        aggregateOptions.build(args);
+        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, FT_PROFILE_AGGREGATE, args.toArray());
+    }
+
+    private List<Object> profileArgs(Keywords type, String query, boolean limited) {
+        List<Object> args = new ArrayList<>();
+        args.add(getName());
+        args.add(type);
+        if (limited) {
+            args.add(Keywords.LIMITED);
+        }
+        args.add(Keywords.QUERY);
+        args.add(query);
+        return args;
+    }
+
     /**
      * Performs spelling correction on a query, returning suggestions for misspelled terms.
      *
@@ -16,10 +16,12 @@
 
 package io.github.dengliming.redismodule.redisearch.aggregate;
 
+import io.github.dengliming.redismodule.common.util.RAssert;
 import io.github.dengliming.redismodule.redisearch.protocol.Keywords;
 import io.github.dengliming.redismodule.redisearch.search.Page;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author dengliming
@@ -33,6 +35,9 @@ public class AggregateOptions {
     private Apply[] applies;
     private Page[] limits;
     private Filter[] filters;
+    private boolean withCursor;
+    private int cursorCount;
+    private long cursorMaxIdleMillis;
 
     public AggregateOptions groups(Group... groups) {
         this.groups = groups;
@@ -69,6 +74,39 @@ public class AggregateOptions {
         return this;
     }
 
+    /**
+     * Return the results through a cursor, count rows at a time.
+     *
+     * @param count rows per read, 0 to use the server default
+     * @return
+     */
+    public AggregateOptions withCursor(int count) {
+        return withCursor(count, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Return the results through a cursor, count rows at a time.
+     *
+     * @param count   rows per read, 0 to use the server default
+     * @param maxIdle the cursor is deleted by the server when it isn't read for this long, 0 to use the server default
+     * @param unit
+     * @return
+     */
+    public AggregateOptions withCursor(int count, long maxIdle, TimeUnit unit) {
+        RAssert.isTrue(count >= 0, "count must not be negative");
+        RAssert.isTrue(maxIdle >= 0, "maxIdle must not be negative");
+        RAssert.notNull(unit, "unit must not be null");
+
+        this.withCursor = true;
+        this.cursorCount = count;
+        this.cursorMaxIdleMillis = unit.toMillis(maxIdle);
+        return this;
+    }
+
+    public boolean isWithCursor() {
+        return withCursor;
+    }
+
     public void build(List<Object> args) {
         if (verbatim) {
             args.add(Keywords.VERBATIM);
@@ -108,5 +146,17 @@ public class AggregateOptions {
                 filter.build(args);
             }
         }
+
+        if (withCursor) {
+            args.add(Keywords.WITHCURSOR);
+            if (cursorCount > 0) {
+                args.add(Keywords.COUNT);
+                args.add(cursorCount);
+            }
+            if (cursorMaxIdleMillis > 0) {
+                args.add(Keywords.MAXIDLE);
+                args.add(cursorMaxIdleMillis);
+            }
+        }
     }
 }
@@ -26,6 +26,7 @@ public class AggregateResult {
 
     private long total;
     private List<Map<String, Object>> rows;
+    private long cursorId;
 
     public long getTotal() {
         return total;
@@ -42,4 +43,15 @@ public class AggregateResult {
     public void setRows(List<Map<String, Object>> rows) {
         this.rows = rows;
     }
+
+    /**
+     * @return the cursor to read the next rows with, 0 when there are no more rows or no cursor was requested
+     */
+    public long getCursorId() {
+        return cursorId;
+    }
+
+    public void setCursorId(long cursorId) {
+        this.cursorId = cursorId;
+    }
 }
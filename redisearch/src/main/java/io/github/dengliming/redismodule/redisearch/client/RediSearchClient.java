@@ -18,6 +18,7 @@ package io.github.dengliming.redismodule.redisearch.client;
 
 import io.github.dengliming.redismodule.common.BaseRedissonClient;
 import io.github.dengliming.redismodule.redisearch.RediSearch;
+import org.redisson.Redisson;
 import org.redisson.config.Config;
 
 /**
@@ -29,6 +30,10 @@ public class RediSearchClient extends BaseRedissonClient {
         super(config);
     }
 
+    public RediSearchClient(Redisson redisson) {
+        super(redisson);
+    }
+
     public RediSearch getRediSearch(String name) {
         return new RediSearch(getCommandExecutor(), name);
     }
@@ -23,5 +23,6 @@ public enum FieldType {
     TAG,
     TEXT,
     GEO,
-    NUMERIC;
+    NUMERIC,
+    VECTOR;
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.index.schema;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vector field of FLOAT32 components, stored in hashes as little-endian blobs.
+ *
+ * @author dengliming
+ */
+public class VectorField extends Field {
+
+    private final Algorithm algorithm;
+    private final int dimension;
+    private final DistanceMetric distanceMetric;
+    private int initialCap;
+    private int m;
+    private int efConstruction;
+
+    public VectorField(String name, Algorithm algorithm, int dimension, DistanceMetric distanceMetric) {
+        super(name, FieldType.VECTOR);
+        RAssert.notNull(algorithm, "algorithm must not be null");
+        RAssert.isTrue(dimension > 0, "dimension must be positive");
+        RAssert.notNull(distanceMetric, "distanceMetric must not be null");
+
+        this.algorithm = algorithm;
+        this.dimension = dimension;
+        this.distanceMetric = distanceMetric;
+    }
+
+    /**
+     * Initial vector capacity of the index.
+     *
+     * @param initialCap
+     * @return
+     */
+    public VectorField initialCap(int initialCap) {
+        RAssert.isTrue(initialCap > 0, "initialCap must be positive");
+
+        this.initialCap = initialCap;
+        return this;
+    }
+
+    /**
+     * Maximum number of outgoing edges of each node in a HNSW layer.
+     *
+     * @param m
+     * @return
+     */
+    public VectorField m(int m) {
+        RAssert.isTrue(algorithm == Algorithm.HNSW, "M only applies to HNSW");
+        RAssert.isTrue(m > 0, "m must be positive");
+
+        this.m = m;
+        return this;
+    }
+
+    /**
+     * Number of candidates considered while building the HNSW graph.
+     *
+     * @param efConstruction
+     * @return
+     */
+    public VectorField efConstruction(int efConstruction) {
+        RAssert.isTrue(algorithm == Algorithm.HNSW, "EF_CONSTRUCTION only applies to HNSW");
+        RAssert.isTrue(efConstruction > 0, "efConstruction must be positive");
+
+        this.efConstruction = efConstruction;
+        return this;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public DistanceMetric getDistanceMetric() {
+        return distanceMetric;
+    }
+
+    public int getInitialCap() {
+        return initialCap;
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int getEfConstruction() {
+        return efConstruction;
+    }
+
+    /**
+     * @return {@code <algorithm> <count> TYPE FLOAT32 DIM <dim> DISTANCE_METRIC <metric> ...}
+     */
+    public List<Object> getAttributes() {
+        List<Object> attributes = new ArrayList<>();
+        attributes.add("TYPE");
+        attributes.add("FLOAT32");
+        attributes.add("DIM");
+        attributes.add(dimension);
+        attributes.add("DISTANCE_METRIC");
+        attributes.add(distanceMetric.name());
+        if (initialCap > 0) {
+            attributes.add("INITIAL_CAP");
+            attributes.add(initialCap);
+        }
+        if (m > 0) {
+            attributes.add("M");
+            attributes.add(m);
+        }
+        if (efConstruction > 0) {
+            attributes.add("EF_CONSTRUCTION");
+            attributes.add(efConstruction);
+        }
+
+        List<Object> args = new ArrayList<>(attributes.size() + 2);
+        args.add(algorithm.name());
+        args.add(attributes.size());
+        args.addAll(attributes);
+        return args;
+    }
+
+    public enum Algorithm {
+        FLAT,
+        HNSW
+    }
+
+    public enum DistanceMetric {
+        L2,
+        IP,
+        COSINE
+    }
+}
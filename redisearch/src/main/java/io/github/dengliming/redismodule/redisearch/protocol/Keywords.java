@@ -24,5 +24,5 @@ public enum Keywords {
     DD, FIELDS, IF, NOSAVE, KEEPDOCS, NOINDEX, SORTABLE, PHONETIC, NOSTEM, WEIGHT, SEPARATOR, ADD, SCHEMA, STOPWORDS, PREFIX, NOFREQS, NOFIELDS,
     NOCONTENT, VERBATIM, NOSTOPWORDS, WITHSORTKEYS, FILTER, GEOFILTER, INKEYS, INFIELDS, RETURN, SUMMARIZE, FRAGS, LEN, SCORE, SCORE_FIELD,
     HIGHLIGHT, TAGS, SLOP, INORDER, EXPANDER, SCORER, EXPLAINSCORE, SORTBY, LIMIT, AVG, REDUCE, STDDEV, COUNT, COUNT_DISTINCT, PAYLOAD_FIELD,
-    COUNT_DISTINCTISH, SUM, MIN, QUANTILE, TOLIST, FIRST_VALUE, BY, RANDOM_SAMPLE, GROUPBY, LOAD, APPLY, AS, DISTANCE, INCLUDE, EXCLUDE, TERMS;
+    COUNT_DISTINCTISH, SUM, MIN, QUANTILE, TOLIST, FIRST_VALUE, BY, RANDOM_SAMPLE, GROUPBY, LOAD, APPLY, AS, DISTANCE, INCLUDE, EXCLUDE, TERMS, WITHCURSOR, MAXIDLE, PARAMS, DIALECT, SEARCH, AGGREGATE, LIMITED, QUERY;
 }
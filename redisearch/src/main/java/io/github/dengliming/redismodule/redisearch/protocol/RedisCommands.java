@@ -16,8 +16,10 @@
 
 package io.github.dengliming.redismodule.redisearch.protocol;
 
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.AggregateCursorDecoder;
 import io.github.dengliming.redismodule.redisearch.protocol.decoder.AggregateDecoder;
 import io.github.dengliming.redismodule.redisearch.protocol.decoder.MisspelledTermDecoder;
+import io.github.dengliming.redismodule.redisearch.protocol.decoder.ProfileDecoder;
 import io.github.dengliming.redismodule.redisearch.protocol.decoder.StringMapInfoDecoder;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.convertor.BooleanReplayConvertor;
@@ -47,6 +49,12 @@ public interface RedisCommands {
 
     RedisCommand FT_INFO = new RedisCommand<>("FT.INFO", new ListMultiDecoder2(new StringMapInfoDecoder(), new CodecDecoder(), new CodecDecoder()));
     RedisCommand FT_AGGREGATE = new RedisCommand<>("FT.AGGREGATE", new ListMultiDecoder2(new AggregateDecoder(), new ObjectMapReplayDecoder()));
+    RedisCommand FT_AGGREGATE_CURSOR = new RedisCommand<>("FT.AGGREGATE",
+            new ListMultiDecoder2(new AggregateCursorDecoder(), new AggregateDecoder(), new ObjectMapReplayDecoder()));
+    RedisCommand FT_CURSOR_READ = new RedisCommand<>("FT.CURSOR", "READ",
+            new ListMultiDecoder2(new AggregateCursorDecoder(), new AggregateDecoder(), new ObjectMapReplayDecoder()));
+    RedisCommand FT_CURSOR_DEL = new RedisCommand<>("FT.CURSOR", "DEL", new BooleanReplayConvertor());
+    RedisCommand FT_PROFILE_AGGREGATE = new RedisCommand<>("FT.PROFILE", new ProfileDecoder<>(new AggregateDecoder()));
 
     RedisCommand FT_EXPLAIN = new RedisCommand<>("FT.EXPLAIN");
     RedisCommand FT_EXPLAINCLI = new RedisCommand<>("FT.EXPLAINCLI");
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.protocol.decoder;
+
+import io.github.dengliming.redismodule.redisearch.aggregate.AggregateResult;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.decoder.MultiDecoder;
+
+import java.util.List;
+
+/**
+ * Decodes the {@code [result, cursor id]} reply of FT.AGGREGATE WITHCURSOR and FT.CURSOR READ.
+ *
+ * @author dengliming
+ */
+public class AggregateCursorDecoder implements MultiDecoder<AggregateResult> {
+
+    @Override
+    public AggregateResult decode(List<Object> parts, State state) {
+        AggregateResult aggregateResult = (AggregateResult) parts.get(0);
+        aggregateResult.setCursorId((Long) parts.get(1));
+        return aggregateResult;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.protocol.decoder;
+
+import io.github.dengliming.redismodule.redisearch.search.LazyDocument;
+import io.github.dengliming.redismodule.redisearch.search.LazySearchResult;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.decoder.MultiDecoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes FT.SEARCH replies into {@link LazySearchResult}s.
+ * <p>
+ * The field arrays of the documents are kept as flat arrays with names decoded as Strings and values left as
+ * byte[], instead of a map of Strings per document.
+ *
+ * @author dengliming
+ */
+public class LazySearchResultDecoder implements MultiDecoder<Object> {
+
+    private final boolean withScores;
+    private final boolean noContent;
+
+    public LazySearchResultDecoder(boolean withScores, boolean noContent) {
+        this.withScores = withScores;
+        this.noContent = noContent;
+    }
+
+    @Override
+    public Decoder<Object> getDecoder(Codec codec, int paramNum, State state) {
+        if (state.getLevel() > 0 && paramNum % 2 != 0) {
+            return ByteArrayCodec.INSTANCE.getValueDecoder();
+        }
+        return StringCodec.INSTANCE.getValueDecoder();
+    }
+
+    @Override
+    public Object decode(List<Object> parts, State state) {
+        if (state.getLevel() > 0) {
+            return parts.toArray();
+        }
+
+        long total = (Long) parts.get(0);
+        int step = 1 + (withScores ? 1 : 0) + (noContent ? 0 : 1);
+        // sized by the page, not by total which counts every match
+        List<LazyDocument> documents = new ArrayList<>((parts.size() - 1) / step);
+        for (int i = 1; i + step - 1 < parts.size(); i += step) {
+            String id = (String) parts.get(i);
+            double score = withScores ? Double.parseDouble((String) parts.get(i + 1)) : 1.0d;
+            Object[] fields = noContent ? null : (Object[]) parts.get(i + step - 1);
+            documents.add(new LazyDocument(id, score, fields));
+        }
+        return new LazySearchResult(total, documents);
+    }
+}
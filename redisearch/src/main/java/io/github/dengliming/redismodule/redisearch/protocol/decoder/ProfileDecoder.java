@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.protocol.decoder;
+
+import io.github.dengliming.redismodule.redisearch.search.ProfileNode;
+import io.github.dengliming.redismodule.redisearch.search.ProfileResult;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.decoder.MultiDecoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the {@code [results, profile]} reply of FT.PROFILE.
+ * <p>
+ * Nested arrays are kept as lists until the whole reply is read, then the results are handed to the decoder of the
+ * profiled command with their field arrays turned into maps, and the profile is turned into a tree of
+ * {@link ProfileNode}s.
+ *
+ * @author dengliming
+ */
+public class ProfileDecoder<T> implements MultiDecoder<Object> {
+
+    private static final String TOTAL_TIME = "Total profile time";
+    private static final String PARSING_TIME = "Parsing time";
+    private static final String PIPELINE_CREATION_TIME = "Pipeline creation time";
+    private static final String WARNING = "Warning";
+    private static final String ITERATORS = "Iterators profile";
+    private static final String RESULT_PROCESSORS = "Result processors profile";
+    private static final String TYPE = "Type";
+    private static final String TIME = "Time";
+    private static final String COUNTER = "Counter";
+    private static final String CHILD_ITERATORS = "Child iterators";
+
+    private final MultiDecoder<T> resultDecoder;
+
+    public ProfileDecoder(MultiDecoder<T> resultDecoder) {
+        this.resultDecoder = resultDecoder;
+    }
+
+    @Override
+    public Object decode(List<Object> parts, State state) {
+        if (state.getLevel() > 0) {
+            return parts;
+        }
+
+        List<Object> results = new ArrayList<>((List<Object>) parts.get(0));
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) instanceof List) {
+                results.set(i, toMap((List<Object>) results.get(i)));
+            }
+        }
+        T result = resultDecoder.decode(results, state);
+
+        double totalTime = 0;
+        double parsingTime = 0;
+        double pipelineCreationTime = 0;
+        String warning = null;
+        ProfileNode iterator = null;
+        List<ProfileNode> resultProcessors = Collections.emptyList();
+        for (Object entry : (List<Object>) parts.get(1)) {
+            List<Object> values = (List<Object>) entry;
+            String label = String.valueOf(values.get(0));
+            switch (label) {
+                case TOTAL_TIME:
+                    totalTime = toDouble(values.get(1));
+                    break;
+                case PARSING_TIME:
+                    parsingTime = toDouble(values.get(1));
+                    break;
+                case PIPELINE_CREATION_TIME:
+                    pipelineCreationTime = toDouble(values.get(1));
+                    break;
+                case WARNING:
+                    warning = values.size() > 1 && values.get(1) != null ? String.valueOf(values.get(1)) : null;
+                    break;
+                case ITERATORS:
+                    iterator = values.size() > 1 && values.get(1) instanceof List ? toNode((List<Object>) values.get(1)) : null;
+                    break;
+                case RESULT_PROCESSORS:
+                    resultProcessors = new ArrayList<>(values.size() - 1);
+                    for (int i = 1; i < values.size(); i++) {
+                        resultProcessors.add(toNode((List<Object>) values.get(i)));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new ProfileResult<>(result, totalTime, parsingTime, pipelineCreationTime, warning, iterator,
+                withUpstreamTime(iterator, resultProcessors));
+    }
+
+    /**
+     * Result processors are timed around the call to their upstream, so when the times grow along the pipeline each
+     * one includes the previous one (and the first one the iterators).
+     */
+    private static List<ProfileNode> withUpstreamTime(ProfileNode iterator, List<ProfileNode> resultProcessors) {
+        double previous = iterator == null ? 0 : iterator.getTime();
+        for (ProfileNode resultProcessor : resultProcessors) {
+            if (resultProcessor.getTime() < previous) {
+                return resultProcessors;
+            }
+            previous = resultProcessor.getTime();
+        }
+
+        List<ProfileNode> nodes = new ArrayList<>(resultProcessors.size());
+        double upstreamTime = iterator == null ? 0 : iterator.getTime();
+        for (ProfileNode node : resultProcessors) {
+            nodes.add(new ProfileNode(node.getType(), node.getTime(), node.getCounter(), node.getAttributes(), node.getChildren(),
+                    upstreamTime));
+            upstreamTime = node.getTime();
+        }
+        return nodes;
+    }
+
+    /**
+     * {@code [Type, INTERSECT, Time, 0.1, Counter, 3, Child iterators, [...], [...]]}
+     */
+    private static ProfileNode toNode(List<Object> values) {
+        String type = null;
+        double time = 0;
+        long counter = 0;
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        List<ProfileNode> children = new ArrayList<>();
+        for (int i = 0; i + 1 < values.size(); i += 2) {
+            String key = String.valueOf(values.get(i));
+            if (CHILD_ITERATORS.equals(key)) {
+                // the children follow each other until the end of the node
+                for (int j = i + 1; j < values.size(); j++) {
+                    children.add(toNode((List<Object>) values.get(j)));
+                }
+                break;
+            }
+            Object value = values.get(i + 1);
+            switch (key) {
+                case TYPE:
+                    type = String.valueOf(value);
+                    break;
+                case TIME:
+                    time = toDouble(value);
+                    break;
+                case COUNTER:
+                    counter = value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+                    break;
+                default:
+                    attributes.put(key, value);
+                    break;
+            }
+        }
+        return new ProfileNode(type, time, counter, attributes, children);
+    }
+
+    private static Map<String, Object> toMap(List<Object> values) {
+        Map<String, Object> map = new LinkedHashMap<>(values.size());
+        for (int i = 0; i + 1 < values.size(); i += 2) {
+            map.put(String.valueOf(values.get(i)), values.get(i + 1));
+        }
+        return map;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(String.valueOf(value));
+    }
+}
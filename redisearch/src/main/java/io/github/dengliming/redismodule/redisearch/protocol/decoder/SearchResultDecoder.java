@@ -43,7 +43,8 @@ public class SearchResultDecoder implements MultiDecoder<SearchResult> {
         Long total = (Long) parts.get(0);
         int documentSize = withScores ? 3 : 2;
 
-        List<Document> documents = new ArrayList<>(total.intValue());
+        // sized by the page, not by total which counts every match
+        List<Document> documents = new ArrayList<>((parts.size() - 1) / documentSize);
         // Checks the document size. DocumentSize equals to 2 means only key and parts. DocumentSize equals to 3 means
         // key, score and parts. Created separated IFs to avoid checking this logic each  document. Also  changed  the
         // step size to reduce numbers of interactions
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.search;
+
+import io.github.dengliming.redismodule.redisearch.index.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Search hit whose fields are kept as a flat array of name and raw value pairs, a value is only converted to a
+ * String when it is read.
+ *
+ * @author dengliming
+ */
+public class LazyDocument {
+
+    private static final Object[] NO_FIELDS = new Object[0];
+
+    private final String id;
+    private final double score;
+    private final Object[] fields;
+
+    /**
+     * @param fields field names (String) and values (byte[] or String) alternately
+     */
+    public LazyDocument(String id, double score, Object[] fields) {
+        this.id = id;
+        this.score = score;
+        this.fields = fields == null ? NO_FIELDS : fields;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public int getFieldCount() {
+        return fields.length / 2;
+    }
+
+    public String getFieldName(int index) {
+        return (String) fields[index * 2];
+    }
+
+    /**
+     * @param index
+     * @return the value of the index-th field
+     */
+    public String getString(int index) {
+        int position = index * 2 + 1;
+        Object value = fields[position];
+        if (value instanceof byte[]) {
+            value = new String((byte[]) value, StandardCharsets.UTF_8);
+            fields[position] = value;
+        }
+        return (String) value;
+    }
+
+    /**
+     * @param name
+     * @return the value of the field, null if the document has no such field
+     */
+    public String get(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : getString(index);
+    }
+
+    /**
+     * @param name
+     * @return the raw value of the field, null if the document has no such field
+     */
+    public byte[] getBytes(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        Object value = fields[index * 2 + 1];
+        return value instanceof byte[] ? (byte[]) value : ((String) value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean contains(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * Documents have few fields, a linear scan is cheaper than hashing.
+     */
+    private int indexOf(String name) {
+        for (int i = 0; i < fields.length; i += 2) {
+            if (name.equals(fields[i])) {
+                return i / 2;
+            }
+        }
+        return -1;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>(getFieldCount() * 2);
+        for (int i = 0; i < getFieldCount(); i++) {
+            map.put(getFieldName(i), getString(i));
+        }
+        return map;
+    }
+
+    public Document toDocument() {
+        return new Document(id, score, toMap());
+    }
+}
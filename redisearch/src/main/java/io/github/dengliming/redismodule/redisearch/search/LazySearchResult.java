@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author dengliming
+ */
+public class LazySearchResult {
+
+    private final long total;
+    private final List<LazyDocument> documents;
+
+    public LazySearchResult(long total, List<LazyDocument> documents) {
+        this.total = total;
+        this.documents = documents;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public List<LazyDocument> getDocuments() {
+        return documents;
+    }
+
+    public <T> List<T> map(ResultMapper<T> mapper) {
+        List<T> results = new ArrayList<>(documents.size());
+        for (LazyDocument document : documents) {
+            results.add(mapper.map(document));
+        }
+        return results;
+    }
+}
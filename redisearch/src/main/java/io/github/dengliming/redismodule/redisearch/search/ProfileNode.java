@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An iterator or result processor of an FT.PROFILE reply.
+ *
+ * @author dengliming
+ */
+public class ProfileNode {
+
+    private final String type;
+    private final double time;
+    private final long counter;
+    private final Map<String, Object> attributes;
+    private final List<ProfileNode> children;
+    private final double upstreamTime;
+
+    public ProfileNode(String type, double time, long counter, Map<String, Object> attributes, List<ProfileNode> children) {
+        this(type, time, counter, attributes, children, 0);
+    }
+
+    /**
+     * @param upstreamTime time included in time which was spent in the nodes feeding this one, e.g. the previous
+     *                     result processor
+     */
+    public ProfileNode(String type, double time, long counter, Map<String, Object> attributes, List<ProfileNode> children,
+                       double upstreamTime) {
+        this.type = type;
+        this.time = time;
+        this.counter = counter;
+        this.attributes = attributes;
+        this.children = children == null ? Collections.emptyList() : children;
+        this.upstreamTime = upstreamTime;
+    }
+
+    /**
+     * @return e.g. {@code INTERSECT}, {@code TEXT} or {@code Sorter}
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return time in milliseconds as reported, including its children and for cumulative result processors upstream
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @return time in milliseconds spent in this node excluding its children and upstream nodes
+     */
+    public double getSelfTime() {
+        double childrenTime = upstreamTime;
+        for (ProfileNode child : children) {
+            childrenTime += child.getTime();
+        }
+        return Math.max(0, time - childrenTime);
+    }
+
+    /**
+     * @return the number of results this node produced
+     */
+    public long getCounter() {
+        return counter;
+    }
+
+    /**
+     * @return the other entries of the node, e.g. {@code Term} or {@code Size}
+     */
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public List<ProfileNode> getChildren() {
+        return children;
+    }
+
+    /**
+     * @return this node and all its descendants, depth first
+     */
+    public List<ProfileNode> flatten() {
+        List<ProfileNode> nodes = new ArrayList<>();
+        flatten(nodes);
+        return nodes;
+    }
+
+    private void flatten(List<ProfileNode> nodes) {
+        nodes.add(this);
+        for (ProfileNode child : children) {
+            child.flatten(nodes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + (attributes.isEmpty() ? "" : attributes.toString()) + " time=" + time + " counter=" + counter;
+    }
+}
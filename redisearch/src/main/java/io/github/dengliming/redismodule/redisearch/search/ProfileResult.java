@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Results of a query run with FT.PROFILE and where its time was spent.
+ *
+ * @param <T> {@link SearchResult} or {@link io.github.dengliming.redismodule.redisearch.aggregate.AggregateResult}
+ * @author dengliming
+ */
+public class ProfileResult<T> {
+
+    private final T result;
+    private final double totalTime;
+    private final double parsingTime;
+    private final double pipelineCreationTime;
+    private final String warning;
+    private final ProfileNode iterator;
+    private final List<ProfileNode> resultProcessors;
+
+    public ProfileResult(T result, double totalTime, double parsingTime, double pipelineCreationTime, String warning,
+                         ProfileNode iterator, List<ProfileNode> resultProcessors) {
+        this.result = result;
+        this.totalTime = totalTime;
+        this.parsingTime = parsingTime;
+        this.pipelineCreationTime = pipelineCreationTime;
+        this.warning = warning;
+        this.iterator = iterator;
+        this.resultProcessors = resultProcessors;
+    }
+
+    public T getResult() {
+        return result;
+    }
+
+    /**
+     * @return total time in milliseconds
+     */
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public double getParsingTime() {
+        return parsingTime;
+    }
+
+    public double getPipelineCreationTime() {
+        return pipelineCreationTime;
+    }
+
+    /**
+     * @return e.g. a timeout warning, null if there is none
+     */
+    public String getWarning() {
+        return warning;
+    }
+
+    /**
+     * @return the root of the iterator tree, null if the reply has none
+     */
+    public ProfileNode getIterator() {
+        return iterator;
+    }
+
+    /**
+     * @return the result processors in pipeline order
+     */
+    public List<ProfileNode> getResultProcessors() {
+        return resultProcessors;
+    }
+
+    /**
+     * @return every iterator and result processor
+     */
+    public List<ProfileNode> getNodes() {
+        List<ProfileNode> nodes = iterator == null ? new ArrayList<>() : iterator.flatten();
+        nodes.addAll(resultProcessors);
+        return nodes;
+    }
+
+    /**
+     * The node which spent the most time itself, excluding the time of its children.
+     *
+     * @return null if the reply has no nodes
+     */
+    public ProfileNode getCostliestNode() {
+        ProfileNode costliest = null;
+        for (ProfileNode node : getNodes()) {
+            if (costliest == null || node.getSelfTime() > costliest.getSelfTime()) {
+                costliest = node;
+            }
+        }
+        return costliest;
+    }
+}
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.search;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.redisearch.index.Document;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps search documents and aggregate rows to objects through a table of setters built once, only the values of
+ * mapped attributes are converted.
+ * <p>
+ * {@link #of(Class)} binds attributes to the fields of a class by name and sets them through method handles, numeric
+ * fields are parsed straight into primitives. The document id goes to a field named {@code id}, JSON paths such as
+ * {@code $.user.name} fall back to their last segment and other names can be bound with {@link #attribute}.
+ * {@link #of(Supplier)} starts without setters, they are added with {@link #id} and {@link #field}.
+ *
+ * <pre>
+ * ResultMapper&lt;Movie&gt; mapper = ResultMapper.of(Movie.class).attribute("release_year", "year");
+ * List&lt;Movie&gt; movies = rediSearch.search("@title:matrix", new SearchOptions(), mapper);
+ *
+ * ResultMapper&lt;Movie&gt; mapper = ResultMapper.of(Movie::new)
+ *         .id(Movie::setId)
+ *         .field("title", Movie::setTitle);
+ * </pre>
+ *
+ * Mappers are immutable, every binding returns a new one.
+ *
+ * @author dengliming
+ */
+public final class ResultMapper<T> {
+
+    private static final Map<Class<?>, ResultMapper<?>> CACHE = new ConcurrentHashMap<>();
+    private static final String ID = "id";
+
+    private final Supplier<T> factory;
+    // the fields of the mapped class, empty for mappers created from a factory
+    private final Map<String, FieldSetter> fields;
+    private final Map<String, Setter> setters;
+    private final Setter idSetter;
+
+    private ResultMapper(Supplier<T> factory, Map<String, FieldSetter> fields, Map<String, Setter> setters, Setter idSetter) {
+        this.factory = factory;
+        this.fields = fields;
+        this.setters = setters;
+        this.idSetter = idSetter;
+    }
+
+    /**
+     * @param type class with a no-arg constructor
+     * @return the mapper of the class, shared by all callers
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ResultMapper<T> of(Class<T> type) {
+        RAssert.notNull(type, "type must not be null");
+
+        return (ResultMapper<T>) CACHE.computeIfAbsent(type, ResultMapper::create);
+    }
+
+    /**
+     * @param factory creates the mapped objects
+     * @return a mapper without setters
+     */
+    public static <T> ResultMapper<T> of(Supplier<T> factory) {
+        RAssert.notNull(factory, "factory must not be null");
+
+        return new ResultMapper<>(factory, Collections.emptyMap(), Collections.emptyMap(), null);
+    }
+
+    private static <T> ResultMapper<T> create(Class<T> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle constructor;
+        try {
+            Constructor<T> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            constructor = lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + " must have a no-arg constructor", e);
+        }
+
+        Map<String, FieldSetter> fields = new HashMap<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                Kind kind = Kind.of(field.getType());
+                if (kind == null || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                        || Modifier.isTransient(modifiers) || fields.containsKey(field.getName())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                try {
+                    fields.put(field.getName(), new FieldSetter(field, kind, lookup.unreflectSetter(field)));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Cannot access " + field, e);
+                }
+            }
+        }
+        return new ResultMapper<>(() -> newInstance(type, constructor), fields, new HashMap<>(fields), fields.get(ID));
+    }
+
+    /**
+     * Bind an attribute, e.g. a RETURN alias or a JSON path, to a field of another name.
+     *
+     * @param attribute
+     * @param fieldName
+     * @return a new mapper with the binding, this one is left unchanged
+     */
+    public ResultMapper<T> attribute(String attribute, String fieldName) {
+        RAssert.notEmpty(attribute, "attribute must not be empty");
+        Setter setter = fields.get(fieldName);
+        RAssert.notNull(setter, "no field " + fieldName + " to bind " + attribute + " to");
+
+        return withSetter(attribute, setter);
+    }
+
+    /**
+     * Set the document id with a custom setter.
+     *
+     * @param setter
+     * @return a new mapper with the setter, this one is left unchanged
+     */
+    public ResultMapper<T> id(BiConsumer<T, String> setter) {
+        RAssert.notNull(setter, "setter must not be null");
+
+        return new ResultMapper<>(factory, fields, setters, custom(setter));
+    }
+
+    /**
+     * Set an attribute with a custom setter, its value is passed as String.
+     *
+     * @param attribute
+     * @param setter
+     * @return a new mapper with the setter, this one is left unchanged
+     */
+    public ResultMapper<T> field(String attribute, BiConsumer<T, String> setter) {
+        RAssert.notEmpty(attribute, "attribute must not be empty");
+        RAssert.notNull(setter, "setter must not be null");
+
+        return withSetter(attribute, custom(setter));
+    }
+
+    public T map(Document document) {
+        T target = factory.get();
+        if (idSetter != null) {
+            idSetter.set(target, document.getId());
+        }
+        setAll(target, document.getFields());
+        return target;
+    }
+
+    public T map(LazyDocument document) {
+        T target = factory.get();
+        if (idSetter != null) {
+            idSetter.set(target, document.getId());
+        }
+        for (int i = 0; i < document.getFieldCount(); i++) {
+            Setter setter = setterOf(document.getFieldName(i));
+            if (setter != null) {
+                setter.set(target, document.getString(i));
+            }
+        }
+        return target;
+    }
+
+    /**
+     * @param row an aggregate row
+     * @return
+     */
+    public T map(Map<String, Object> row) {
+        T target = factory.get();
+        setAll(target, row);
+        return target;
+    }
+
+    public List<T> mapRows(Collection<Map<String, Object>> rows) {
+        List<T> results = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            results.add(map(row));
+        }
+        return results;
+    }
+
+    private ResultMapper<T> withSetter(String attribute, Setter setter) {
+        Map<String, Setter> bound = new HashMap<>(setters);
+        bound.put(attribute, setter);
+        return new ResultMapper<>(factory, fields, bound, idSetter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Setter custom(BiConsumer<T, String> setter) {
+        return (target, value) -> setter.accept((T) target, value instanceof String ? (String) value : String.valueOf(value));
+    }
+
+    private void setAll(T target, Map<String, Object> values) {
+        if (values == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Setter setter = setterOf(entry.getKey());
+            if (setter != null && entry.getValue() != null) {
+                setter.set(target, entry.getValue());
+            }
+        }
+    }
+
+    private Setter setterOf(String attribute) {
+        Setter setter = setters.get(attribute);
+        if (setter == null && attribute.startsWith("$")) {
+            setter = setters.get(attribute.substring(attribute.lastIndexOf('.') + 1));
+        }
+        return setter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newInstance(Class<T> type, MethodHandle constructor) {
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+    }
+
+    private interface Setter {
+
+        void set(Object target, Object value);
+    }
+
+    private enum Kind {
+        STRING, INT, LONG, DOUBLE, FLOAT, SHORT, BYTE, BOOLEAN, OBJECT;
+
+        static Kind of(Class<?> type) {
+            if (type == String.class) {
+                return STRING;
+            }
+            if (type == int.class) {
+                return INT;
+            }
+            if (type == long.class) {
+                return LONG;
+            }
+            if (type == double.class) {
+                return DOUBLE;
+            }
+            if (type == float.class) {
+                return FLOAT;
+            }
+            if (type == short.class) {
+                return SHORT;
+            }
+            if (type == byte.class) {
+                return BYTE;
+            }
+            if (type == boolean.class) {
+                return BOOLEAN;
+            }
+            if (type == Integer.class || type == Long.class || type == Double.class || type == Float.class
+                    || type == Short.class || type == Byte.class || type == Boolean.class
+                    || type == BigDecimal.class || type.isEnum()) {
+                return OBJECT;
+            }
+            return null;
+        }
+    }
+
+    private static final class FieldSetter implements Setter {
+
+        private final Field field;
+        private final Kind kind;
+        private final MethodHandle handle;
+
+        FieldSetter(Field field, Kind kind, MethodHandle handle) {
+            this.field = field;
+            this.kind = kind;
+            Class<?> valueType = kind == Kind.STRING || kind == Kind.OBJECT ? Object.class : field.getType();
+            this.handle = handle.asType(MethodType.methodType(void.class, Object.class, valueType));
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            String text = value instanceof String ? (String) value : String.valueOf(value);
+            try {
+                switch (kind) {
+                    case STRING:
+                        handle.invokeExact(target, (Object) text);
+                        break;
+                    case INT:
+                        handle.invokeExact(target, parseInt(text));
+                        break;
+                    case LONG:
+                        handle.invokeExact(target, parseLong(text));
+                        break;
+                    case DOUBLE:
+                        handle.invokeExact(target, parseDouble(text));
+                        break;
+                    case FLOAT:
+                        handle.invokeExact(target, (float) parseDouble(text));
+                        break;
+                    case SHORT:
+                        handle.invokeExact(target, parseShort(text));
+                        break;
+                    case BYTE:
+                        handle.invokeExact(target, parseByte(text));
+                        break;
+                    case BOOLEAN:
+                        handle.invokeExact(target, parseBoolean(text));
+                        break;
+                    default:
+                        handle.invokeExact(target, convert(field.getType(), text));
+                        break;
+                }
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("Cannot convert '" + text + "' for " + field, e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot set " + field, e);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object convert(Class<?> type, String text) {
+            if (type == Integer.class) {
+                return parseInt(text);
+            }
+            if (type == Long.class) {
+                return parseLong(text);
+            }
+            if (type == Double.class) {
+                return parseDouble(text);
+            }
+            if (type == Float.class) {
+                return (float) parseDouble(text);
+            }
+            if (type == Short.class) {
+                return parseShort(text);
+            }
+            if (type == Byte.class) {
+                return parseByte(text);
+            }
+            if (type == Boolean.class) {
+                return parseBoolean(text);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(text);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, text);
+            }
+            throw new IllegalArgumentException("Unsupported field type " + type.getName());
+        }
+
+        /**
+         * Aggregate reducers such as AVG return decimals for integral values, those are accepted as long as they
+         * have no fractional part.
+         *
+         * @throws ArithmeticException if the value has a fractional part or does not fit into a long
+         */
+        private static long parseLong(String text) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return new BigDecimal(text).longValueExact();
+            }
+        }
+
+        private static int parseInt(String text) {
+            return Math.toIntExact(parseLong(text));
+        }
+
+        private static short parseShort(String text) {
+            long value = parseLong(text);
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw new ArithmeticException("short overflow");
+            }
+            return (short) value;
+        }
+
+        private static byte parseByte(String text) {
+            long value = parseLong(text);
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                throw new ArithmeticException("byte overflow");
+            }
+            return (byte) value;
+        }
+
+        private static double parseDouble(String text) {
+            switch (text) {
+                case "inf":
+                case "+inf":
+                    return Double.POSITIVE_INFINITY;
+                case "-inf":
+                    return Double.NEGATIVE_INFINITY;
+                default:
+                    return Double.parseDouble(text);
+            }
+        }
+
+        private static boolean parseBoolean(String text) {
+            return "1".equals(text) || "true".equalsIgnoreCase(text);
+        }
+    }
+}
@@ -16,11 +16,16 @@
 
 package io.github.dengliming.redismodule.redisearch.search;
 
+import io.github.dengliming.redismodule.common.util.RAssert;
 import io.github.dengliming.redismodule.redisearch.index.RSLanguage;
 import io.github.dengliming.redismodule.redisearch.protocol.Keywords;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author dengliming
@@ -34,7 +39,7 @@ public class SearchOptions {
     private boolean withSortKeys;
     private String[] inKeys;
     private String[] inFields;
-    private String[] returnFields;
+    private List<Object> returnFields;
     private String expander;
     private int slop;
     private boolean withInOrder;
@@ -47,11 +52,45 @@ public class SearchOptions {
     private String payload;
     private SortBy sortBy;
     private Page page;
+    private Map<String, Object> params;
+    private int dialect;
 
     public SearchOptions() {
         this.filters = new LinkedList<>();
     }
 
+    /**
+     * @return a copy that can be changed without affecting these options, the filters and
+     * summarize/highlight options are shared
+     */
+    SearchOptions copy() {
+        SearchOptions copy = new SearchOptions();
+        copy.noContent = noContent;
+        copy.verbatim = verbatim;
+        copy.noStopwords = noStopwords;
+        copy.withScores = withScores;
+        copy.withPayloads = withPayloads;
+        copy.withSortKeys = withSortKeys;
+        copy.inKeys = inKeys;
+        copy.inFields = inFields;
+        copy.returnFields = returnFields == null ? null : new ArrayList<>(returnFields);
+        copy.expander = expander;
+        copy.slop = slop;
+        copy.withInOrder = withInOrder;
+        copy.filters.addAll(filters);
+        copy.language = language;
+        copy.summaryOptions = summaryOptions;
+        copy.highlightOptions = highlightOptions;
+        copy.scorer = scorer;
+        copy.explainScore = explainScore;
+        copy.payload = payload;
+        copy.sortBy = sortBy;
+        copy.page = page;
+        copy.params = params == null ? null : new LinkedHashMap<>(params);
+        copy.dialect = dialect;
+        return copy;
+    }
+
     public boolean isNoContent() {
         return noContent;
     }
@@ -97,7 +136,27 @@ public class SearchOptions {
     }
 
     public SearchOptions returnFields(String... returnFields) {
-        this.returnFields = returnFields;
+        this.returnFields = new ArrayList<>(Arrays.asList(returnFields));
+        return this;
+    }
+
+    /**
+     * Return a field under another name, e.g. {@code returnField("$.price", "price")} for JSON indexes.
+     *
+     * @param identifier field name or JSON path
+     * @param alias
+     * @return
+     */
+    public SearchOptions returnField(String identifier, String alias) {
+        RAssert.notEmpty(identifier, "identifier must not be empty");
+        RAssert.notEmpty(alias, "alias must not be empty");
+
+        if (returnFields == null) {
+            returnFields = new ArrayList<>();
+        }
+        returnFields.add(identifier);
+        returnFields.add(Keywords.AS);
+        returnFields.add(alias);
         return this;
     }
 
@@ -166,6 +225,58 @@ public class SearchOptions {
         return this;
     }
 
+    /**
+     * Bind a value to the {@code $name} placeholder of the query, requires dialect 2 or later.
+     *
+     * @param name
+     * @param value a string, a number or raw bytes
+     * @return
+     */
+    public SearchOptions param(String name, Object value) {
+        RAssert.notEmpty(name, "name must not be empty");
+        RAssert.notNull(value, "value must not be null");
+
+        if (params == null) {
+            params = new LinkedHashMap<>();
+        }
+        params.put(name, value);
+        return this;
+    }
+
+    /**
+     * Bind a vector to the {@code $name} placeholder of the query as a little-endian FLOAT32 blob.
+     *
+     * @param name
+     * @param vector
+     * @return
+     */
+    public SearchOptions param(String name, float[] vector) {
+        return param(name, VectorQuery.toBlob(vector));
+    }
+
+    public SearchOptions dialect(int dialect) {
+        RAssert.isTrue(dialect > 0, "dialect must be positive");
+
+        this.dialect = dialect;
+        return this;
+    }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    public int getDialect() {
+        return dialect;
+    }
+
+    public SortBy getSortBy() {
+        return sortBy;
+    }
+
+    public Page getPage() {
+        return page;
+    }
+
     public boolean isWithScores() {
         return withScores;
     }
@@ -208,10 +319,9 @@ public class SearchOptions {
         }
         if (returnFields != null) {
             args.add(Keywords.RETURN);
-            args.add(returnFields.length);
-            for (String returnField : returnFields) {
-                args.add(returnField);
-            }
+            // the count covers the AS keywords and aliases too
+            args.add(returnFields.size());
+            args.addAll(returnFields);
         }
         if (summaryOptions != null) {
             summaryOptions.build(args);
@@ -251,5 +361,17 @@ public class SearchOptions {
         if (page != null) {
             page.build(args);
         }
+        if (params != null) {
+            args.add(Keywords.PARAMS);
+            args.add(params.size() * 2);
+            params.forEach((name, value) -> {
+                args.add(name);
+                args.add(value);
+            });
+        }
+        if (dialect > 0) {
+            args.add(Keywords.DIALECT);
+            args.add(dialect);
+        }
     }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisearch.search;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.redisearch.index.Document;
+import org.redisson.api.SortOrder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * K nearest neighbours or range query on a {@link io.github.dengliming.redismodule.redisearch.index.schema.VectorField}.
+ * <p>
+ * The query vector is bound through PARAMS as a little-endian FLOAT32 blob and the distance of every result is
+ * returned in the score field, read it with {@link #getDistance(Document)}. When the returned fields are restricted
+ * with {@link SearchOptions#returnFields(String...)} the score field must be one of them.
+ *
+ * @author dengliming
+ */
+public class VectorQuery {
+
+    public static final String VECTOR_PARAM = "BLOB";
+    private static final int MIN_DIALECT = 2;
+
+    private final String field;
+    private final float[] vector;
+    private final boolean knn;
+    private final int k;
+    private final double radius;
+    private String filter = "*";
+    private String scoreField;
+    private int efRuntime;
+
+    private VectorQuery(String field, float[] vector, boolean knn, int k, double radius) {
+        RAssert.notEmpty(field, "field must not be empty");
+        RAssert.notNull(vector, "vector must not be null");
+
+        this.field = field;
+        this.vector = vector;
+        this.knn = knn;
+        this.k = k;
+        this.radius = radius;
+        this.scoreField = "__" + field + "_score";
+    }
+
+    /**
+     * The k documents nearest to vector, sorted by distance.
+     *
+     * @param field
+     * @param k
+     * @param vector
+     * @return
+     */
+    public static VectorQuery knn(String field, int k, float[] vector) {
+        RAssert.isTrue(k > 0, "k must be positive");
+
+        return new VectorQuery(field, vector, true, k, 0);
+    }
+
+    /**
+     * The documents within radius of vector.
+     *
+     * @param field
+     * @param radius
+     * @param vector
+     * @return
+     */
+    public static VectorQuery range(String field, double radius, float[] vector) {
+        RAssert.isTrue(radius >= 0, "radius must not be negative");
+
+        return new VectorQuery(field, vector, false, 0, radius);
+    }
+
+    /**
+     * Only consider the documents matching filter, e.g. {@code @genre:{drama}}.
+     *
+     * @param filter
+     * @return
+     */
+    public VectorQuery filter(String filter) {
+        RAssert.notEmpty(filter, "filter must not be empty");
+
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Name of the field the distance is returned in, {@code __<field>_score} by default.
+     *
+     * @param scoreField
+     * @return
+     */
+    public VectorQuery scoreAs(String scoreField) {
+        RAssert.notEmpty(scoreField, "scoreField must not be empty");
+
+        this.scoreField = scoreField;
+        return this;
+    }
+
+    /**
+     * Number of candidates considered by a HNSW KNN query.
+     *
+     * @param efRuntime
+     * @return
+     */
+    public VectorQuery efRuntime(int efRuntime) {
+        RAssert.isTrue(knn, "EF_RUNTIME only applies to KNN queries");
+        RAssert.isTrue(efRuntime > 0, "efRuntime must be positive");
+
+        this.efRuntime = efRuntime;
+        return this;
+    }
+
+    public String getScoreField() {
+        return scoreField;
+    }
+
+    public String getQuery() {
+        StringBuilder query = new StringBuilder();
+        if (knn) {
+            query.append('(').append(filter).append(")=>[KNN ").append(k).append(" @").append(field)
+                    .append(" $").append(VECTOR_PARAM);
+            if (efRuntime > 0) {
+                query.append(" EF_RUNTIME ").append(efRuntime);
+            }
+            query.append(" AS ").append(scoreField).append(']');
+        } else {
+            if (!"*".equals(filter)) {
+                query.append('(').append(filter).append(") ");
+            }
+            query.append('@').append(field).append(":[VECTOR_RANGE ").append(radius).append(" $").append(VECTOR_PARAM)
+                    .append("]=>{$YIELD_DISTANCE_AS: ").append(scoreField).append('}');
+        }
+        return query.toString();
+    }
+
+    /**
+     * Bind the vector and raise the dialect to 2 if needed. KNN queries are also sorted by distance and return
+     * all k results unless sorting or paging was set.
+     *
+     * @param searchOptions left unchanged, so it can be reused with other queries
+     * @return a copy of searchOptions with the vector query settings
+     */
+    public SearchOptions applyTo(SearchOptions searchOptions) {
+        RAssert.notNull(searchOptions, "SearchOptions must be not null");
+
+        SearchOptions options = searchOptions.copy();
+        options.param(VECTOR_PARAM, vector);
+        if (options.getDialect() < MIN_DIALECT) {
+            options.dialect(MIN_DIALECT);
+        }
+        if (knn) {
+            if (options.getSortBy() == null) {
+                options.sort(new SortBy(scoreField, SortOrder.ASC));
+            }
+            if (options.getPage() == null) {
+                options.page(0, k);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * @param document a result of this query
+     * @return the distance between the document and the query vector
+     */
+    public double getDistance(Document document) {
+        RAssert.notNull(document.getFields(), "document has no fields");
+
+        Object distance = document.getFields().get(scoreField);
+        RAssert.notNull(distance, "document has no " + scoreField);
+        return distance instanceof Number ? ((Number) distance).doubleValue() : Double.parseDouble(distance.toString());
+    }
+
+    /**
+     * @param vector
+     * @return the components of vector as little-endian FLOAT32
+     */
+    public static byte[] toBlob(float[] vector) {
+        RAssert.notNull(vector, "vector must not be null");
+
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+}
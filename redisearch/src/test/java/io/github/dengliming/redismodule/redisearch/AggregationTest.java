@@ -33,6 +33,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -88,4 +91,39 @@ public class AggregationTest extends AbstractTest {
         assertThat(aggregateResult.getRows().get(0).get("name")).isEqualTo("c");
         assertThat(aggregateResult.getRows().get(1).get("name")).isEqualTo("a");
     }
+
+    @Test
+    public void testAggregateCursor() {
+        RediSearch rediSearch = getRediSearchClient().getRediSearch("testAggregateCursor");
+        assertThat(rediSearch.createIndex(new Schema()
+                .addField(new TextField("name").sortable())
+                .addField(new Field("count", FieldType.NUMERIC)))).isTrue();
+        for (int i = 0; i < 10; i++) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("name", "n" + i);
+            fields.put("count", i);
+            assertThat(rediSearch.addDocument(new Document("doc" + i, 1.0d, fields), new DocumentOptions())).isTrue();
+        }
+
+        AggregateOptions options = new AggregateOptions()
+                .loads("@name")
+                .withCursor(3, 1, TimeUnit.MINUTES);
+        AggregateResult first = rediSearch.aggregate("*", options);
+        assertThat(first.getRows()).hasSize(3);
+        assertThat(first.getCursorId()).isNotZero();
+        AggregateResult second = rediSearch.readCursor(first.getCursorId(), 5);
+        assertThat(second.getRows()).hasSize(5);
+        assertThat(rediSearch.deleteCursor(second.getCursorId())).isTrue();
+
+        try (Stream<Map<String, Object>> rows = rediSearch.aggregateStream("*", options)) {
+            assertThat(rows.map(row -> row.get("name")).collect(Collectors.toSet())).hasSize(10);
+        }
+
+        AggregateCursorIterator iterator = rediSearch.aggregateIterator("*", options, false);
+        assertThat(iterator.next()).containsKey("name");
+        assertThat(iterator.getCursorId()).isNotZero();
+        iterator.close();
+        assertThat(iterator.getCursorId()).isZero();
+        assertThat(iterator.hasNext()).isFalse();
+    }
 }
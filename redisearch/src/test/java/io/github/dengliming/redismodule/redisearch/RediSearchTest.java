@@ -16,6 +16,10 @@
 
 package io.github.dengliming.redismodule.redisearch;
 
+import io.github.dengliming.redismodule.redisearch.aggregate.AggregateOptions;
+import io.github.dengliming.redismodule.redisearch.aggregate.AggregateResult;
+import io.github.dengliming.redismodule.redisearch.aggregate.Group;
+import io.github.dengliming.redismodule.redisearch.aggregate.Reducers;
 import io.github.dengliming.redismodule.redisearch.index.ConfigOption;
 import io.github.dengliming.redismodule.redisearch.index.Document;
 import io.github.dengliming.redismodule.redisearch.index.DocumentOptions;
@@ -27,24 +31,39 @@ import io.github.dengliming.redismodule.redisearch.index.schema.FieldType;
 import io.github.dengliming.redismodule.redisearch.index.schema.Schema;
 import io.github.dengliming.redismodule.redisearch.index.schema.TagField;
 import io.github.dengliming.redismodule.redisearch.index.schema.TextField;
+import io.github.dengliming.redismodule.redisearch.index.schema.VectorField;
 import io.github.dengliming.redismodule.redisearch.search.GeoFilter;
+import io.github.dengliming.redismodule.redisearch.search.LazyDocument;
+import io.github.dengliming.redismodule.redisearch.search.LazySearchResult;
 import io.github.dengliming.redismodule.redisearch.search.MisspelledTerm;
 import io.github.dengliming.redismodule.redisearch.search.NumericFilter;
+import io.github.dengliming.redismodule.redisearch.search.ProfileResult;
+import io.github.dengliming.redismodule.redisearch.search.ResultMapper;
 import io.github.dengliming.redismodule.redisearch.search.SearchOptions;
 import io.github.dengliming.redismodule.redisearch.search.SearchResult;
+import io.github.dengliming.redismodule.redisearch.search.SortBy;
 import io.github.dengliming.redismodule.redisearch.search.SpellCheckOptions;
+import io.github.dengliming.redismodule.redisearch.search.VectorQuery;
 import io.github.dengliming.redismodule.redisjson.RedisJSON;
 import io.github.dengliming.redismodule.redisjson.args.SetArgs;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.redisson.api.RMap;
+import org.redisson.api.SortOrder;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 /**
  * @author dengliming
@@ -252,4 +271,174 @@ public class RediSearchTest extends AbstractTest {
         misspelledTerms = rediSearch.spellCheck("*", new SpellCheckOptions().distance(2));
         assertThat(misspelledTerms).isEmpty();
     }
+
+    @Test
+    public void testVectorSearch() {
+        RediSearch rediSearch = getRediSearchClient().getRediSearch("vectors");
+        assertThat(rediSearch.createIndex(new Schema()
+                        .addField(new TagField("genre"))
+                        .addField(new VectorField("embedding", VectorField.Algorithm.HNSW, 2, VectorField.DistanceMetric.L2)
+                                .m(16)
+                                .efConstruction(100)),
+                new IndexOptions().definition(new IndexDefinition().setPrefixes(Arrays.asList("vec:"))))).isTrue();
+
+        float[][] vectors = {{0f, 0f}, {1f, 1f}, {3f, 3f}};
+        for (int i = 0; i < vectors.length; i++) {
+            RMap<String, byte[]> hash = getRediSearchClient().getRedisson()
+                    .getMap("vec:" + i, new CompositeCodec(StringCodec.INSTANCE, ByteArrayCodec.INSTANCE));
+            hash.put("genre", (i == 2 ? "b" : "a").getBytes(StandardCharsets.UTF_8));
+            hash.put("embedding", VectorQuery.toBlob(vectors[i]));
+        }
+
+        VectorQuery knn = VectorQuery.knn("embedding", 2, new float[]{0.9f, 0.9f}).scoreAs("dist");
+        SearchResult result = rediSearch.search(knn, new SearchOptions().returnFields("dist"));
+        assertThat(result.getDocuments()).extracting(Document::getId).containsExactly("vec:1", "vec:0");
+        assertThat(knn.getDistance(result.getDocuments().get(0))).isCloseTo(0.02d, within(0.001d));
+
+        result = rediSearch.search(VectorQuery.knn("embedding", 2, new float[]{0.9f, 0.9f}).filter("@genre:{b}"));
+        assertThat(result.getDocuments()).extracting(Document::getId).containsExactly("vec:2");
+
+        result = rediSearch.search(VectorQuery.range("embedding", 3, new float[]{0f, 0f}));
+        assertThat(result.getTotal()).isEqualTo(2);
+
+        // the options are not changed, so they can be reused with another KNN query
+        SearchOptions options = new SearchOptions();
+        result = rediSearch.search(VectorQuery.knn("embedding", 1, new float[]{0f, 0f}), options);
+        assertThat(result.getDocuments()).extracting(Document::getId).containsExactly("vec:0");
+        assertThat(options.getPage()).isNull();
+        assertThat(options.getSortBy()).isNull();
+        assertThat(options.getParams()).isNull();
+        result = rediSearch.search(VectorQuery.knn("embedding", 3, new float[]{3f, 3f}).scoreAs("dist"), options);
+        assertThat(result.getDocuments()).extracting(Document::getId).containsExactly("vec:2", "vec:1", "vec:0");
+    }
+
+    @Test
+    public void testPreparedQuery() {
+        RediSearch rediSearch = getRediSearchClient().getRediSearch("testPreparedQuery");
+        assertThat(rediSearch.createIndex(new Schema()
+                .addField(new TextField("title"))
+                .addField(new Field("age", FieldType.NUMERIC)))).isTrue();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("title", "hello");
+            fields.put("age", i * 10);
+            assertThat(rediSearch.addDocument(new Document("doc" + i, 1.0d, fields), new DocumentOptions())).isTrue();
+        }
+
+        PreparedQuery query = rediSearch.prepareSearch("@title:$word @age:[$min $max]", new SearchOptions().noContent());
+        assertThat(query.getParamNames()).containsExactly("word", "min", "max");
+        assertThat(query.search("hello", 0, 20).getTotal()).isEqualTo(3);
+        assertThat(query.search("hello", 30, 40).getTotal()).isEqualTo(2);
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("word", "bye");
+        values.put("min", 0);
+        values.put("max", 100);
+        assertThat(query.search(values).getTotal()).isZero();
+    }
+
+    @Test
+    public void testProfile() {
+        RediSearch rediSearch = getRediSearchClient().getRediSearch("testProfile");
+        assertThat(rediSearch.createIndex(new Schema()
+                .addField(new TextField("title"))
+                .addField(new Field("age", FieldType.NUMERIC)))).isTrue();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("title", "hello");
+            fields.put("age", i * 10);
+            assertThat(rediSearch.addDocument(new Document("doc" + i, 1.0d, fields), new DocumentOptions())).isTrue();
+        }
+
+        ProfileResult<SearchResult> profile = rediSearch.profileSearch("hello @age:[0 20]", new SearchOptions());
+        assertThat(profile.getResult().getTotal()).isEqualTo(3);
+        assertThat(profile.getTotalTime()).isGreaterThanOrEqualTo(0);
+        assertThat(profile.getIterator()).isNotNull();
+        assertThat(profile.getIterator().getType()).isEqualTo("INTERSECT");
+        assertThat(profile.getIterator().getChildren()).hasSize(2);
+        assertThat(profile.getResultProcessors()).isNotEmpty();
+        assertThat(profile.getNodes()).contains(profile.getCostliestNode());
+
+        ProfileResult<AggregateResult> aggregateProfile = rediSearch.profileAggregate("*", new AggregateOptions()
+                .groups(new Group().fields("@title").reducers(Reducers.count().as("count"))));
+        assertThat(aggregateProfile.getResult().getRows()).hasSize(1);
+        assertThat(aggregateProfile.getResultProcessors()).isNotEmpty();
+    }
+
+    @Test
+    public void testSearchLazy() {
+        RediSearch rediSearch = getRediSearchClient().getRediSearch("testSearchLazy");
+        assertThat(rediSearch.createIndex(new Schema()
+                .addField(new TextField("title"))
+                .addField(new TextField("body"))
+                .addField(new Field("age", FieldType.NUMERIC)))).isTrue();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("title", "hello" + i);
+            fields.put("body", "hello world");
+            fields.put("age", i);
+            assertThat(rediSearch.addDocument(new Document("doc" + i, 1.0d, fields), new DocumentOptions())).isTrue();
+        }
+
+        LazySearchResult result = rediSearch.searchLazy("world", new SearchOptions()
+                .returnFields("title", "age")
+                .sort(new SortBy("age", SortOrder.ASC)));
+        assertThat(result.getTotal()).isEqualTo(3);
+        LazyDocument document = result.getDocuments().get(0);
+        assertThat(document.getId()).isEqualTo("doc0");
+        assertThat(document.getFieldCount()).isEqualTo(2);
+        assertThat(document.get("title")).isEqualTo("hello0");
+        assertThat(document.get("body")).isNull();
+        assertThat(document.getBytes("age")).isEqualTo("0".getBytes(StandardCharsets.UTF_8));
+
+        List<Map<String, Object>> mapped = result.map(ResultMapper.<Map<String, Object>>of(HashMap::new)
+                .id((map, id) -> map.put("id", id))
+                .field("age", (map, age) -> map.put("age", Integer.parseInt(age))));
+        assertThat(mapped).hasSize(3);
+        assertThat(mapped.get(2)).containsEntry("id", "doc2").containsEntry("age", 2).doesNotContainKey("title");
+    }
+
+    @Test
+    public void testResultMapper() {
+        RediSearch rediSearch = getRediSearchClient().getRediSearch("testResultMapper");
+        assertThat(rediSearch.createIndex(
+                new Schema()
+                        .addField(new TextField("$.user.name").attribute("name"))
+                        .addField(new Field("$.user.hp", FieldType.NUMERIC).sortable().attribute("hp")),
+                new IndexOptions()
+                        .definition(new IndexDefinition(IndexDefinition.DataType.JSON).setPrefixes(Arrays.asList("mapper:"))))).isTrue();
+
+        RedisJSON redisJSON = getRedisJSONClient().getRedisJSON();
+        redisJSON.set("mapper:1", SetArgs.Builder.create("$", "{\"user\":{\"name\":\"John Smith\",\"hp\":1000}}"));
+        redisJSON.set("mapper:2", SetArgs.Builder.create("$", "{\"user\":{\"name\":\"John Doe\",\"hp\":250}}"));
+
+        ResultMapper<Player> mapper = ResultMapper.of(Player.class).attribute("health", "hp");
+        List<Player> players = rediSearch.search("@name:(John)", new SearchOptions()
+                .returnField("$.user.name", "name")
+                .returnField("$.user.hp", "health")
+                .sort(new SortBy("hp", SortOrder.DESC)), mapper);
+        assertThat(players).hasSize(2);
+        assertThat(players.get(0).id).isEqualTo("mapper:1");
+        assertThat(players.get(0).name).isEqualTo("John Smith");
+        assertThat(players.get(0).hp).isEqualTo(1000);
+        assertThat(players.get(1).hp).isEqualTo(250);
+
+        List<Player> totals = rediSearch.aggregate("*", new AggregateOptions()
+                .groups(new Group().fields().reducers(Reducers.sum("@hp").as("hp"))), mapper);
+        assertThat(totals).hasSize(1);
+        assertThat(totals.get(0).hp).isEqualTo(1250);
+
+        // integral fields reject fractions and overflows instead of truncating them
+        assertThat(mapper.map(Collections.<String, Object>singletonMap("hp", "12.0")).hp).isEqualTo(12);
+        assertThatThrownBy(() -> mapper.map(Collections.<String, Object>singletonMap("hp", "1.9")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Cannot convert");
+        assertThatThrownBy(() -> mapper.map(Collections.<String, Object>singletonMap("hp", "3000000000")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Cannot convert");
+    }
+
+    private static class Player {
+        private String id;
+        private String name;
+        private int hp;
+    }
 }
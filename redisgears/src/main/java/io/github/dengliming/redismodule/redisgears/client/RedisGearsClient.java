@@ -18,6 +18,7 @@ package io.github.dengliming.redismodule.redisgears.client;
 
 import io.github.dengliming.redismodule.common.BaseRedissonClient;
 import io.github.dengliming.redismodule.redisgears.RedisGears;
+import org.redisson.Redisson;
 import org.redisson.config.Config;
 
 public class RedisGearsClient extends BaseRedissonClient {
@@ -26,6 +27,10 @@ public class RedisGearsClient extends BaseRedissonClient {
         super(config);
     }
 
+    public RedisGearsClient(Redisson redisson) {
+        super(redisson);
+    }
+
     public RedisGears getRedisGears() {
         return new RedisGears(getCommandExecutor());
     }
@@ -19,6 +19,7 @@ package io.github.dengliming.redismodule.redisgraph.client;
 import io.github.dengliming.redismodule.common.BaseRedissonClient;
 import io.github.dengliming.redismodule.redisgraph.RedisGraph;
 import io.github.dengliming.redismodule.redisgraph.RedisGraphBatch;
+import org.redisson.Redisson;
 import org.redisson.api.BatchOptions;
 import org.redisson.config.Config;
 
@@ -28,6 +29,10 @@ public class RedisGraphClient extends BaseRedissonClient {
         super(config);
     }
 
+    public RedisGraphClient(Redisson redisson) {
+        super(redisson);
+    }
+
     public RedisGraph getRedisGraph() {
         return new RedisGraph(getCommandExecutor());
     }
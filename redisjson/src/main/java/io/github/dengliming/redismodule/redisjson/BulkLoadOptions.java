@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import org.redisson.api.BatchOptions;
+
+/**
+ * Options of {@link RedisJSONBulkLoader}.
+ *
+ * @author dengliming
+ */
+public class BulkLoadOptions {
+
+    private String keyPointer;
+    private String keyPrefix = "";
+    private String path = "$";
+    private int batchSize = 500;
+    private int maxInFlight = 8;
+    private int readBufferSize = 1 << 20;
+    private BatchOptions batchOptions = BatchOptions.defaults();
+
+    /**
+     * JSON pointer (RFC 6901) of the member holding the key of each document, e.g. {@code /id} or {@code /user/name}.
+     * The member must be a string or a number.
+     *
+     * @param keyPointer
+     * @return
+     */
+    public BulkLoadOptions keyPointer(String keyPointer) {
+        RAssert.notEmpty(keyPointer, "keyPointer must not be empty");
+        RAssert.isTrue(keyPointer.startsWith("/"), "keyPointer must start with /");
+
+        this.keyPointer = keyPointer;
+        return this;
+    }
+
+    /**
+     * Prefix prepended to every extracted key.
+     *
+     * @param keyPrefix
+     * @return
+     */
+    public BulkLoadOptions keyPrefix(String keyPrefix) {
+        RAssert.notNull(keyPrefix, "keyPrefix must not be null");
+
+        this.keyPrefix = keyPrefix;
+        return this;
+    }
+
+    /**
+     * Path the documents are set at, the root by default.
+     *
+     * @param path
+     * @return
+     */
+    public BulkLoadOptions path(String path) {
+        RAssert.notEmpty(path, "path must not be empty");
+
+        this.path = path;
+        return this;
+    }
+
+    /**
+     * Number of documents pipelined in one batch.
+     *
+     * @param batchSize
+     * @return
+     */
+    public BulkLoadOptions batchSize(int batchSize) {
+        RAssert.isTrue(batchSize > 0, "batchSize must be positive");
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Maximum number of batches sent and not yet replied, reading the file blocks until one completes.
+     *
+     * @param maxInFlight
+     * @return
+     */
+    public BulkLoadOptions maxInFlight(int maxInFlight) {
+        RAssert.isTrue(maxInFlight > 0, "maxInFlight must be positive");
+
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Size in bytes of the buffer the file is read through.
+     *
+     * @param readBufferSize
+     * @return
+     */
+    public BulkLoadOptions readBufferSize(int readBufferSize) {
+        RAssert.isTrue(readBufferSize > 0, "readBufferSize must be positive");
+
+        this.readBufferSize = readBufferSize;
+        return this;
+    }
+
+    /**
+     * Options of every batch, e.g. response timeout and retries.
+     *
+     * @param batchOptions
+     * @return
+     */
+    public BulkLoadOptions batchOptions(BatchOptions batchOptions) {
+        RAssert.notNull(batchOptions, "batchOptions must not be null");
+
+        this.batchOptions = batchOptions;
+        return this;
+    }
+
+    public String getKeyPointer() {
+        return keyPointer;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getReadBufferSize() {
+        return readBufferSize;
+    }
+
+    public BatchOptions getBatchOptions() {
+        return batchOptions;
+    }
+}
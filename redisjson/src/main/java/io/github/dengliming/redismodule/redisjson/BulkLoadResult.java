@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link RedisJSONBulkLoader#load(java.nio.file.Path)}.
+ *
+ * @author dengliming
+ */
+public class BulkLoadResult {
+
+    private final long loaded;
+    private final long failed;
+    private final long elapsedMillis;
+    private final List<String> errors;
+
+    public BulkLoadResult(long loaded, long failed, long elapsedMillis, List<String> errors) {
+        this.loaded = loaded;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.errors = errors;
+    }
+
+    /**
+     * @return the number of documents set
+     */
+    public long getLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return the number of lines which could not be parsed or set
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getDocsPerSecond() {
+        return elapsedMillis == 0 ? loaded : loaded * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * @return the first errors as {@code line <n>: <message>}
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkLoadResult{loaded=" + loaded + ", failed=" + failed + ", elapsedMillis=" + elapsedMillis
+                + ", docsPerSecond=" + (long) getDocsPerSecond() + '}';
+    }
+}
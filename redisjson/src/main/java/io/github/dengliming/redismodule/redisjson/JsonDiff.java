@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Structural diff of two JSON trees (maps, lists and scalars) into RedisJSON updates addressed by JSONPath.
+ * <p>
+ * Removed members become JSON.DEL, changed integral numbers JSON.NUMINCRBY, lists which only grew at the end
+ * JSON.ARRAPPEND, and any other change a JSON.SET of the smallest enclosing value.
+ *
+ * @author dengliming
+ */
+final class JsonDiff {
+
+    static final String ROOT = "$";
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private JsonDiff() {
+    }
+
+    static List<Op> diff(Object previous, Object current) {
+        List<Op> ops = new ArrayList<>();
+        if (previous != null && current == null) {
+            ops.add(new Op(OpType.DEL, ROOT, null));
+        } else {
+            diff(ROOT, previous, current, ops);
+        }
+        return ops;
+    }
+
+    private static void diff(String path, Object previous, Object current, List<Op> ops) {
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        if (previous instanceof Map && current instanceof Map) {
+            diffObjects(path, (Map<String, Object>) previous, (Map<String, Object>) current, ops);
+        } else if (previous instanceof List && current instanceof List) {
+            diffArrays(path, (List<Object>) previous, (List<Object>) current, ops);
+        } else if (isIntegral(previous) && isIntegral(current)) {
+            ops.add(new Op(OpType.INCRBY, path, ((Number) current).longValue() - ((Number) previous).longValue()));
+        } else if (previous instanceof Number && current instanceof Number
+                && ((Number) previous).doubleValue() == ((Number) current).doubleValue()) {
+            // e.g. 1 and 1.0
+            return;
+        } else {
+            ops.add(new Op(OpType.SET, path, current));
+        }
+    }
+
+    private static void diffObjects(String path, Map<String, Object> previous, Map<String, Object> current, List<Op> ops) {
+        for (String name : previous.keySet()) {
+            if (!current.containsKey(name)) {
+                ops.add(new Op(OpType.DEL, member(path, name), null));
+            }
+        }
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            String memberPath = member(path, entry.getKey());
+            if (previous.containsKey(entry.getKey())) {
+                diff(memberPath, previous.get(entry.getKey()), entry.getValue(), ops);
+            } else {
+                ops.add(new Op(OpType.SET, memberPath, entry.getValue()));
+            }
+        }
+    }
+
+    private static void diffArrays(String path, List<Object> previous, List<Object> current, List<Op> ops) {
+        if (previous.size() < current.size() && previous.equals(current.subList(0, previous.size()))) {
+            ops.add(new Op(OpType.ARRAPPEND, path, current.subList(previous.size(), current.size())));
+        } else if (previous.size() == current.size()) {
+            for (int i = 0; i < current.size(); i++) {
+                diff(path + "[" + i + "]", previous.get(i), current.get(i), ops);
+            }
+        } else {
+            ops.add(new Op(OpType.SET, path, current));
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE
+                || value instanceof BigDecimal && ((BigDecimal) value).scale() <= 0 && ((BigDecimal) value).toBigInteger().bitLength() < Long.SIZE;
+    }
+
+    static String member(String path, String name) {
+        if (IDENTIFIER.matcher(name).matches()) {
+            return path + "." + name;
+        }
+        return path + "['" + name.replace("\\", "\\\\").replace("'", "\\'") + "']";
+    }
+
+    enum OpType {
+        SET, DEL, INCRBY, ARRAPPEND
+    }
+
+    static final class Op {
+
+        private final OpType type;
+        private final String path;
+        private final Object value;
+
+        Op(OpType type, String path, Object value) {
+            this.type = type;
+            this.path = path;
+            this.value = value;
+        }
+
+        OpType getType() {
+            return type;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the new value for SET, the delta for INCRBY and the list of appended values for ARRAPPEND
+         */
+        Object getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + path + " " + value;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.redisjson.mapper.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of {@link NearCachedRedisJSON}.
+ *
+ * @author dengliming
+ */
+public class NearCacheOptions {
+
+    private int maxSize = 10000;
+    private long timeToLiveMillis;
+    private long maxIdleMillis;
+    private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+    private boolean tracking = true;
+    private JsonMapper jsonMapper;
+
+    /**
+     * Maximum number of cached documents (keys), 0 means unbounded.
+     *
+     * @param maxSize
+     * @return
+     */
+    public NearCacheOptions maxSize(int maxSize) {
+        RAssert.isTrue(maxSize >= 0, "maxSize must not be negative");
+
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Evict documents this long after they were cached, 0 means never.
+     *
+     * @param timeToLive
+     * @param unit
+     * @return
+     */
+    public NearCacheOptions timeToLive(long timeToLive, TimeUnit unit) {
+        RAssert.isTrue(timeToLive >= 0, "timeToLive must not be negative");
+        RAssert.notNull(unit, "unit must not be null");
+
+        this.timeToLiveMillis = unit.toMillis(timeToLive);
+        return this;
+    }
+
+    /**
+     * Evict documents which have not been read for this long, 0 means never.
+     *
+     * @param maxIdle
+     * @param unit
+     * @return
+     */
+    public NearCacheOptions maxIdle(long maxIdle, TimeUnit unit) {
+        RAssert.isTrue(maxIdle >= 0, "maxIdle must not be negative");
+        RAssert.notNull(unit, "unit must not be null");
+
+        this.maxIdleMillis = unit.toMillis(maxIdle);
+        return this;
+    }
+
+    public NearCacheOptions evictionPolicy(EvictionPolicy evictionPolicy) {
+        RAssert.notNull(evictionPolicy, "evictionPolicy must not be null");
+
+        this.evictionPolicy = evictionPolicy;
+        return this;
+    }
+
+    /**
+     * Use CLIENT TRACKING to drop documents changed by other clients, requires the RESP3 protocol.
+     * Without tracking only local writes and the time to live keep the cache fresh.
+     *
+     * @param tracking
+     * @return
+     */
+    public NearCacheOptions tracking(boolean tracking) {
+        this.tracking = tracking;
+        return this;
+    }
+
+    public NearCacheOptions jsonMapper(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        return this;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    public long getMaxIdleMillis() {
+        return maxIdleMillis;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    public JsonMapper getJsonMapper() {
+        return jsonMapper;
+    }
+
+    /**
+     * How documents are evicted once maxSize is reached.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Least recently used.
+         */
+        LRU,
+        /**
+         * Least frequently used.
+         */
+        LFU
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.redisjson.args.GetArgs;
+import io.github.dengliming.redismodule.redisjson.args.MSetArgs;
+import io.github.dengliming.redismodule.redisjson.args.SetArgs;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RFuture;
+import org.redisson.cache.Cache;
+import org.redisson.cache.LFUCacheMap;
+import org.redisson.cache.LRUCacheMap;
+import org.redisson.client.ChannelName;
+import org.redisson.client.RedisPubSubListener;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.pubsub.PubSubType;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.command.CommandAsyncService;
+import org.redisson.config.Protocol;
+import org.redisson.connection.ClientConnectionsEntry;
+import org.redisson.connection.ConnectionListener;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.connection.ServiceManager;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.redisson.pubsub.PublishSubscribeService;
+
+import java.io.Closeable;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RedisJSON} with a client side cache in front of get and mget.
+ * <p>
+ * Decoded values are cached per (key, path, type) and evicted per key. Local writes drop the key immediately,
+ * writes of other clients are reported by CLIENT TRACKING invalidation messages: cache misses are read through a
+ * dedicated tracked connection per node, which redirects its invalidations to a subscription on __redis__:invalidate.
+ * Tracking is re-issued on every node whenever a node connects or disconnects (new masters, failovers and reconnects
+ * of the tracked connections), until it is enabled again nothing is cached and the cache is dropped.
+ * Cached values are shared between callers and must not be modified.
+ *
+ * @author dengliming
+ */
+public class NearCachedRedisJSON extends RedisJSON implements Closeable {
+
+    private static final ChannelName INVALIDATE_CHANNEL = new ChannelName("__redis__:invalidate");
+    private static final int EPOCH_STRIPES = 1024;
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final Cache<String, ConcurrentMap<List<Object>, Object>> cache;
+    // bumped on every invalidation, a read only caches its reply if the epoch of its key didn't change meanwhile
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+    private final ConcurrentMap<ClientConnectionsEntry, InvalidationListener> listeners = new ConcurrentHashMap<>();
+    // values are only cached while trackedGeneration equals trackingGeneration, i.e. the last refresh of tracking succeeded
+    private final AtomicLong trackingGeneration = new AtomicLong();
+    private final AtomicLong trackedGeneration = new AtomicLong();
+    private final int connectionListenerId;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private volatile boolean closed;
+
+    public NearCachedRedisJSON(CommandAsyncExecutor commandExecutor, NearCacheOptions options) {
+        this(options, options.isTracking() ? trackingExecutor(commandExecutor) : commandExecutor);
+    }
+
+    private NearCachedRedisJSON(NearCacheOptions options, CommandAsyncExecutor commandExecutor) {
+        super(commandExecutor, options.getJsonMapper() == null ? DEFAULT_JSON_MAPPER : options.getJsonMapper());
+        this.commandExecutor = commandExecutor;
+        if (options.getEvictionPolicy() == NearCacheOptions.EvictionPolicy.LFU) {
+            this.cache = new LFUCacheMap<>(options.getMaxSize(), options.getTimeToLiveMillis(), options.getMaxIdleMillis());
+        } else {
+            this.cache = new LRUCacheMap<>(options.getMaxSize(), options.getTimeToLiveMillis(), options.getMaxIdleMillis());
+        }
+        if (options.isTracking()) {
+            this.connectionListenerId = commandExecutor.getServiceManager().getConnectionEventsHub().addListener(new TrackingConnectionListener());
+            try {
+                commandExecutor.get(refreshTracking());
+            } catch (RuntimeException e) {
+                try {
+                    close();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        } else {
+            this.connectionListenerId = -1;
+        }
+    }
+
+    private static CommandAsyncExecutor trackingExecutor(CommandAsyncExecutor commandExecutor) {
+        if (commandExecutor.getServiceManager().getCfg().getProtocol() != Protocol.RESP3) {
+            throw new IllegalStateException("`protocol` config setting should be set to RESP3 value for tracking");
+        }
+        // commands of this executor are sent through one tracked connection per node
+        return new CommandAsyncService(commandExecutor, true);
+    }
+
+    /**
+     * Drops the cache and (re-)enables tracking on every node of the current topology, values are cached again
+     * once all nodes track. Failed attempts are retried until a newer refresh started or this cache is closed.
+     */
+    private RFuture<Void> refreshTracking() {
+        long generation = trackingGeneration.incrementAndGet();
+        // invalidations may have been missed, also stops reads in flight from caching their values
+        invalidateAll();
+
+        PublishSubscribeService subscribeService = commandExecutor.getConnectionManager().getSubscribeService();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        synchronized (listeners) {
+            Set<ClientConnectionsEntry> current = new HashSet<>();
+            for (MasterSlaveEntry entry : commandExecutor.getConnectionManager().getEntrySet()) {
+                for (ClientConnectionsEntry clientEntry : entry.getAllEntries()) {
+                    if (clientEntry.isFreezed()) {
+                        continue;
+                    }
+                    current.add(clientEntry);
+                    InvalidationListener listener = listeners.get(clientEntry);
+                    if (listener == null) {
+                        listener = new InvalidationListener(clientEntry);
+                        listeners.put(clientEntry, listener);
+                        futures.add(track(entry, clientEntry, listener));
+                    } else {
+                        futures.add(track(entry, clientEntry));
+                    }
+                }
+            }
+            // nodes removed by failovers or topology changes
+            listeners.values().removeIf(listener -> {
+                if (current.contains(listener.clientEntry)) {
+                    return false;
+                }
+                subscribeService.removeListenerAsync(PubSubType.SUBSCRIBE, INVALIDATE_CHANNEL, listener);
+                return true;
+            });
+        }
+
+        CompletableFuture<Void> future = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        future.whenComplete((res, e) -> {
+            if (closed || trackingGeneration.get() != generation) {
+                return;
+            }
+            if (e == null) {
+                // drops values read before all nodes were tracked again
+                invalidateAll();
+                trackedGeneration.accumulateAndGet(generation, Math::max);
+                return;
+            }
+            ServiceManager serviceManager = commandExecutor.getServiceManager();
+            if (!serviceManager.isShuttingDown()) {
+                serviceManager.newTimeout(t -> {
+                    if (!closed && trackingGeneration.get() == generation) {
+                        refreshTracking();
+                    }
+                }, serviceManager.getConfig().getRetryInterval(), TimeUnit.MILLISECONDS);
+            }
+        });
+        return new CompletableFutureWrapper<>(future);
+    }
+
+    private CompletableFuture<Void> track(MasterSlaveEntry entry, ClientConnectionsEntry clientEntry, RedisPubSubListener<?>... listeners) {
+        PublishSubscribeService subscribeService = commandExecutor.getConnectionManager().getSubscribeService();
+        return subscribeService.subscribe(entry, clientEntry, StringCodec.INSTANCE, INVALIDATE_CHANNEL, listeners)
+                .thenCompose(pubSubEntry -> pubSubEntry.getConnection().<Long, Long>async(RedisCommands.CLIENT_ID))
+                .thenCompose(id -> commandExecutor.<Void, Void>readAsync(clientEntry.getClient(), StringCodec.INSTANCE,
+                        RedisCommands.CLIENT_TRACKING, "ON", "REDIRECT", id))
+                .toCompletableFuture();
+    }
+
+    @Override
+    public <T> RFuture<T> getAsync(String key, Type type, GetArgs getArgs) {
+        RAssert.notEmpty(key, "key must not be empty");
+        RAssert.notNull(type, "type must not be null");
+        RAssert.notNull(getArgs, "getArgs must not be null");
+
+        List<Object> args = getArgs.build(key);
+        // the key itself is the cache key, the remaining arguments (paths and formatting) and the type select the entry
+        args.set(0, type);
+        Object value = lookup(key, args);
+        if (value != null) {
+            return new CompletableFutureWrapper<>(CompletableFuture.completedFuture((T) value));
+        }
+
+        long epoch = epoch(key);
+        RFuture<T> future = super.getAsync(key, type, getArgs);
+        // cache before completing, so the next call of the same caller sees the value
+        return new CompletableFutureWrapper<>(future.toCompletableFuture().thenApply(res -> {
+            put(key, args, res, epoch);
+            return res;
+        }));
+    }
+
+    @Override
+    public <T> RFuture<List<T>> mgetAsync(String path, Type type, String... keys) {
+        RAssert.notEmpty(keys, "keys must not be empty");
+        RAssert.notEmpty(path, "path must not be empty");
+        RAssert.notNull(type, "type must not be null");
+
+        // same entry as get with a single path
+        List<Object> entryKey = Arrays.asList(type, path);
+        Object[] values = new Object[keys.length];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = lookup(keys[i], entryKey);
+            if (values[i] == null) {
+                missing.add(i);
+            }
+        }
+        if (missing.isEmpty()) {
+            return new CompletableFutureWrapper<>(CompletableFuture.completedFuture((List<T>) Arrays.asList(values)));
+        }
+
+        String[] missingKeys = new String[missing.size()];
+        long[] missingEpochs = new long[missing.size()];
+        for (int i = 0; i < missingKeys.length; i++) {
+            missingKeys[i] = keys[missing.get(i)];
+            missingEpochs[i] = epoch(missingKeys[i]);
+        }
+        RFuture<List<T>> future = super.mgetAsync(path, type, missingKeys);
+        return new CompletableFutureWrapper<>(future.toCompletableFuture().thenApply(res -> {
+            for (int i = 0; i < missingKeys.length; i++) {
+                values[missing.get(i)] = res.get(i);
+                put(missingKeys[i], entryKey, res.get(i), missingEpochs[i]);
+            }
+            return (List<T>) Arrays.asList(values);
+        }));
+    }
+
+    @Override
+    public RFuture<Long> delAsync(String key, String path) {
+        return invalidating(key, super.delAsync(key, path));
+    }
+
+    @Override
+    public RFuture<String> setAsync(String key, SetArgs setArgs) {
+        return invalidating(key, super.setAsync(key, setArgs));
+    }
+
+    @Override
+    public RFuture<String> msetAsync(MSetArgs msetArgs) {
+        msetArgs.getKeys().forEach(this::invalidate);
+        RFuture<String> future = super.msetAsync(msetArgs);
+        return new CompletableFutureWrapper<>(future.toCompletableFuture().whenComplete((res, e) -> msetArgs.getKeys().forEach(this::invalidate)));
+    }
+
+    @Override
+    public RFuture<String> mergeAsync(String key, String path, Object value) {
+        return invalidating(key, super.mergeAsync(key, path, value));
+    }
+
+    @Override
+    public RFuture<String> incrByAsync(String key, String path, long num) {
+        return invalidating(key, super.incrByAsync(key, path, num));
+    }
+
+    @Override
+    public RFuture<String> multByAsync(String key, String path, long num) {
+        return invalidating(key, super.multByAsync(key, path, num));
+    }
+
+    @Override
+    public RFuture<Long> strAppendAsync(String key, String path, Object object) {
+        return invalidating(key, super.strAppendAsync(key, path, object));
+    }
+
+    @Override
+    public RFuture<Long> arrAppendAsync(String key, String path, Object... objects) {
+        return invalidating(key, super.arrAppendAsync(key, path, objects));
+    }
+
+    @Override
+    public RFuture<Long> arrInsertAsync(String key, String path, long index, Object... objects) {
+        return invalidating(key, super.arrInsertAsync(key, path, index, objects));
+    }
+
+    @Override
+    public RFuture<Long> arrTrimAsync(String key, String path, long start, long stop) {
+        return invalidating(key, super.arrTrimAsync(key, path, start, stop));
+    }
+
+    @Override
+    public <T> RFuture<T> arrPopAsync(String key, String path, Type type, long index) {
+        return invalidating(key, super.arrPopAsync(key, path, type, index));
+    }
+
+    @Override
+    public RFuture<List<Long>> toggleAsync(String key, String path) {
+        return invalidating(key, super.toggleAsync(key, path));
+    }
+
+    @Override
+    public RFuture<Long> clearAsync(String key, String path) {
+        return invalidating(key, super.clearAsync(key, path));
+    }
+
+    @Override
+    public RFuture<Integer> writeDiffAsync(String key, Object previous, Object current, BatchOptions options) {
+        return invalidating(key, super.writeDiffAsync(key, previous, current, options));
+    }
+
+    /**
+     * Drop the cached values of key.
+     *
+     * @param key
+     */
+    public void invalidate(String key) {
+        epochs.incrementAndGet(stripe(key));
+        if (cache.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Drop all cached values.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < EPOCH_STRIPES; i++) {
+            epochs.incrementAndGet(i);
+        }
+        invalidations.add(cache.size());
+        cache.clear();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (connectionListenerId != -1) {
+            commandExecutor.getServiceManager().getConnectionEventsHub().removeListener(connectionListenerId);
+        }
+        PublishSubscribeService subscribeService = commandExecutor.getConnectionManager().getSubscribeService();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (InvalidationListener listener : listeners.values()) {
+            futures.add(subscribeService.removeListenerAsync(PubSubType.SUBSCRIBE, INVALIDATE_CHANNEL, listener));
+            futures.add(commandExecutor.readAsync(listener.clientEntry.getClient(), StringCodec.INSTANCE,
+                    RedisCommands.CLIENT_TRACKING, "OFF").toCompletableFuture());
+        }
+        listeners.clear();
+        commandExecutor.get(new CompletableFutureWrapper<>(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))));
+        invalidateAll();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of cached documents dropped by local writes or invalidation messages
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return the number of cached documents
+     */
+    public int getSize() {
+        return cache.size();
+    }
+
+    private Object lookup(String key, List<Object> entryKey) {
+        ConcurrentMap<List<Object>, Object> entries = cache.get(key);
+        Object value = entries == null ? null : entries.get(entryKey);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    private void put(String key, List<Object> entryKey, Object value, long epoch) {
+        if (value == null || epoch(key) != epoch || trackedGeneration.get() != trackingGeneration.get()) {
+            return;
+        }
+        ConcurrentMap<List<Object>, Object> entries = cache.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        entries.put(entryKey, value);
+        // an invalidation may have happened between the check above and the put
+        if (epoch(key) != epoch) {
+            entries.remove(entryKey, value);
+        }
+    }
+
+    private <R> RFuture<R> invalidating(String key, RFuture<R> future) {
+        invalidate(key);
+        // drops values read while the write was in flight, before the caller can read again
+        return new CompletableFutureWrapper<>(future.toCompletableFuture().whenComplete((res, e) -> invalidate(key)));
+    }
+
+    private long epoch(String key) {
+        return epochs.get(stripe(key));
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % EPOCH_STRIPES;
+    }
+
+    private void onInvalidate(Object msg) {
+        if (msg == null) {
+            // sent on FLUSHALL / FLUSHDB
+            invalidateAll();
+        } else if (msg instanceof Collection) {
+            for (Object key : (Collection<?>) msg) {
+                onInvalidate(key);
+            }
+        } else if (msg instanceof byte[]) {
+            invalidate(new String((byte[]) msg, StandardCharsets.UTF_8));
+        } else {
+            invalidate(msg.toString());
+        }
+    }
+
+    private final class InvalidationListener implements RedisPubSubListener<Object> {
+
+        private final ClientConnectionsEntry clientEntry;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        private InvalidationListener(ClientConnectionsEntry clientEntry) {
+            this.clientEntry = clientEntry;
+        }
+
+        @Override
+        public void onMessage(CharSequence channel, Object msg) {
+            if (INVALIDATE_CHANNEL.toString().contentEquals(channel)) {
+                onInvalidate(msg);
+            }
+        }
+
+        @Override
+        public void onStatus(PubSubType type, CharSequence channel) {
+            if (type != PubSubType.SUBSCRIBE || !INVALIDATE_CHANNEL.toString().contentEquals(channel)) {
+                return;
+            }
+            if (!subscribed.compareAndSet(false, true)) {
+                // resubscribed after a reconnect: redirect to the new connection and drop what may have been missed
+                refreshTracking();
+            }
+        }
+    }
+
+    private final class TrackingConnectionListener implements ConnectionListener {
+
+        @Override
+        public void onConnect(InetSocketAddress addr) {
+            // new or promoted nodes and reconnected (tracked) connections
+            if (!closed) {
+                refreshTracking();
+            }
+        }
+
+        @Override
+        public void onDisconnect(InetSocketAddress addr) {
+            if (!closed) {
+                refreshTracking();
+            }
+        }
+    }
+}
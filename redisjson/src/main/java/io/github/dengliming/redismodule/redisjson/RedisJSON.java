@@ -16,33 +16,53 @@
 
 package io.github.dengliming.redismodule.redisjson;
 
+import com.google.gson.reflect.TypeToken;
 import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.common.util.SlotUtil;
 import io.github.dengliming.redismodule.redisjson.args.GetArgs;
+import io.github.dengliming.redismodule.redisjson.args.MSetArgs;
 import io.github.dengliming.redismodule.redisjson.args.SetArgs;
-import io.github.dengliming.redismodule.redisjson.utils.GsonUtils;
+import io.github.dengliming.redismodule.redisjson.mapper.GsonJsonMapper;
+import io.github.dengliming.redismodule.redisjson.mapper.JsonMapper;
+import io.github.dengliming.redismodule.redisjson.mapper.JsonMapperCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.util.ReferenceCountUtil;
+import org.redisson.api.BatchOptions;
 import org.redisson.api.RFuture;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
 import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.misc.CompletableFutureWrapper;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_ARRAPPEND;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_ARRINDEX;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_ARRINSERT;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_ARRLEN;
-import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_ARRPOP;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_ARRPOP_VALUE;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_ARRTRIM;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_CLEAR;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_DEBUG_MEMORY;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_DEL;
-import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_GET;
-import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_MGET;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_GET_VALUE;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_MERGE;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_MGET_VALUES;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_MSET;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_NUMINCRBY;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_NUMMULTBY;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_OBJKEYS;
@@ -50,13 +70,19 @@ import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_SET;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_STRAPPEND;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_STRLEN;
+import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_TOGGLE;
 import static io.github.dengliming.redismodule.redisjson.protocol.RedisCommands.JSON_TYPE;
 
 public class RedisJSON {
 
     private static final Map<String, Class> CLASS_TYPE_MAPPING;
+    static final JsonMapper DEFAULT_JSON_MAPPER = new GsonJsonMapper();
     private final CommandAsyncExecutor commandExecutor;
     private final Codec codec;
+    private final JsonMapper jsonMapper;
+    private final Codec jsonCodec;
+    private final ConcurrentMap<Type, Codec> jsonCodecs = new ConcurrentHashMap<>();
+    private volatile boolean readFromReplicas;
 
     static {
         CLASS_TYPE_MAPPING = new HashMap<>();
@@ -74,8 +100,23 @@ public class RedisJSON {
     }
 
     public RedisJSON(CommandAsyncExecutor commandExecutor, Codec codec) {
+        this(commandExecutor, codec, DEFAULT_JSON_MAPPER);
+    }
+
+    public RedisJSON(CommandAsyncExecutor commandExecutor, JsonMapper jsonMapper) {
+        this(commandExecutor, commandExecutor.getServiceManager().getCfg().getCodec(), jsonMapper);
+    }
+
+    /**
+     * @param jsonMapper reads replies and writes values directly from and into the network buffers
+     */
+    public RedisJSON(CommandAsyncExecutor commandExecutor, Codec codec, JsonMapper jsonMapper) {
+        RAssert.notNull(jsonMapper, "jsonMapper must not be null");
+
         this.commandExecutor = commandExecutor;
         this.codec = codec;
+        this.jsonMapper = jsonMapper;
+        this.jsonCodec = new JsonMapperCodec(jsonMapper);
     }
 
     /**
@@ -95,9 +136,9 @@ public class RedisJSON {
         RAssert.notEmpty(key, "key must not be empty");
 
         if (path == null) {
-            return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_DEL, key);
+            return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_DEL, key);
         }
-        return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_DEL, key, path);
+        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_DEL, key, path);
     }
 
     /**
@@ -118,7 +159,73 @@ public class RedisJSON {
         RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(setArgs, "setArgs must not be null");
 
-        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_SET, setArgs.build(key).toArray());
+        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_SET, setArgs.build(key, this::encode).toArray());
+    }
+
+    /**
+     * Sets multiple JSON values at paths in keys.
+     * In cluster mode one JSON.MSET is sent per hash slot, so the update is only atomic per slot.
+     * <p>
+     * JSON.MSET <key> <path> <json> [key path json ...]
+     *
+     * @param msetArgs
+     * @return Simple String OK if executed correctly.
+     */
+    public String mset(MSetArgs msetArgs) {
+        return commandExecutor.get(msetAsync(msetArgs));
+    }
+
+    public RFuture<String> msetAsync(MSetArgs msetArgs) {
+        RAssert.notNull(msetArgs, "msetArgs must not be null");
+        List<String> keys = msetArgs.getKeys();
+        RAssert.isTrue(!keys.isEmpty(), "msetArgs must not be empty");
+
+        Map<Integer, List<Integer>> slots = SlotUtil.groupBySlot(commandExecutor, keys);
+        if (slots.size() == 1) {
+            return commandExecutor.writeAsync(keys.get(0), StringCodec.INSTANCE, JSON_MSET, msetArgs.build(null, this::encode).toArray());
+        }
+
+        // encode every group before sending any of them, so a serialization error doesn't leave a partial update
+        List<List<Object>> groups = new ArrayList<>(slots.size());
+        try {
+            for (List<Integer> positions : slots.values()) {
+                groups.add(msetArgs.build(positions, this::encode));
+            }
+        } catch (RuntimeException e) {
+            groups.forEach(args -> args.forEach(ReferenceCountUtil::release));
+            throw e;
+        }
+
+        List<CompletableFuture<String>> futures = new ArrayList<>(groups.size());
+        for (List<Object> args : groups) {
+            RFuture<String> future = commandExecutor.writeAsync((String) args.get(0), StringCodec.INSTANCE, JSON_MSET, args.toArray());
+            futures.add(future.toCompletableFuture());
+        }
+        CompletableFuture<String> result = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> futures.get(0).join());
+        return new CompletableFutureWrapper<>(result);
+    }
+
+    /**
+     * Merges a value into the JSON value at path following RFC 7396, null members are deleted. The value is
+     * written with {@link JsonMapper#writeMergePatch}, so null fields of maps and objects are sent too.
+     * <p>
+     * JSON.MERGE <key> <path> <json>
+     *
+     * @param key
+     * @param path
+     * @param value
+     * @return Simple String OK if executed correctly.
+     */
+    public String merge(String key, String path, Object value) {
+        return commandExecutor.get(mergeAsync(key, path, value));
+    }
+
+    public RFuture<String> mergeAsync(String key, String path, Object value) {
+        RAssert.notEmpty(key, "key must not be empty");
+        RAssert.notEmpty(path, "path must not be empty");
+
+        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_MERGE, key, path, encodeMergePatch(value));
     }
 
     /**
@@ -142,46 +249,112 @@ public class RedisJSON {
     }
 
     public <T> RFuture<T> getAsync(String key, Class<T> clazz, GetArgs getArgs) {
-        RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(clazz, "clazz must not be null");
+
+        return getAsync(key, (Type) clazz, getArgs);
+    }
+
+    /**
+     * Same as {@link #get(String, Class, GetArgs)} for generic types,
+     * e.g. {@code new TypeToken<List<Order>>() {}.getType()}.
+     */
+    public <T> T get(String key, Type type, GetArgs getArgs) {
+        return commandExecutor.get(getAsync(key, type, getArgs));
+    }
+
+    public <T> RFuture<T> getAsync(String key, Type type, GetArgs getArgs) {
+        RAssert.notEmpty(key, "key must not be empty");
+        RAssert.notNull(type, "type must not be null");
         RAssert.notNull(getArgs, "getArgs must not be null");
 
-        RFuture<String> getFuture = commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_GET, getArgs.build(key).toArray());
-        return transformRPromiseResult(getFuture, clazz);
+        return readAsync(key, jsonCodec(type), JSON_GET_VALUE, getArgs.build(key).toArray());
+    }
+
+    /**
+     * Return the values at multiple paths in key, mapped by path.
+     * With JSONPath each value is the array of matches, so type should be a collection type.
+     * <p>
+     * JSON.GET <key> path [path ...]
+     *
+     * @param key
+     * @param type
+     * @param paths
+     * @param <T>
+     * @return path to value, or null if the key doesn't exist
+     */
+    public <T> Map<String, T> getPaths(String key, Type type, String... paths) {
+        return commandExecutor.get(getPathsAsync(key, type, paths));
+    }
+
+    public <T> RFuture<Map<String, T>> getPathsAsync(String key, Type type, String... paths) {
+        RAssert.notEmpty(key, "key must not be empty");
+        RAssert.notNull(type, "type must not be null");
+        RAssert.notEmpty(paths, "paths must not be empty");
+
+        if (paths.length == 1) {
+            // a single path is replied without the enclosing object
+            RFuture<T> future = getAsync(key, type, new GetArgs().path(paths));
+            return new CompletableFutureWrapper<>(future.toCompletableFuture()
+                    .thenApply(res -> res == null ? null : Collections.singletonMap(paths[0], res)));
+        }
+        return getAsync(key, TypeToken.getParameterized(Map.class, String.class, type).getType(), new GetArgs().path(paths));
     }
 
     /**
      * Returns the values at path from multiple key s. Non-existing keys and non-existing paths are reported as null.
+     * In cluster mode one JSON.MGET is sent per hash slot and the values are returned in the order of keys.
      */
     public <T> List<T> mget(String path, Class<T> clazz, String... keys) {
         return commandExecutor.get(mgetAsync(path, clazz, keys));
     }
 
     public <T> RFuture<List<T>> mgetAsync(String path, Class<T> clazz, String... keys) {
+        RAssert.notNull(clazz, "clazz must not be null");
+
+        return mgetAsync(path, (Type) clazz, keys);
+    }
+
+    public <T> List<T> mget(String path, Type type, String... keys) {
+        return commandExecutor.get(mgetAsync(path, type, keys));
+    }
+
+    public <T> RFuture<List<T>> mgetAsync(String path, Type type, String... keys) {
         RAssert.notEmpty(keys, "keys must not be empty");
         RAssert.notEmpty(path, "path must not be empty");
-        RAssert.notNull(clazz, "clazz must not be null");
+        RAssert.notNull(type, "type must not be null");
 
-        CompletableFuture result = new CompletableFuture();
-        List<String> args = new ArrayList<>(keys.length + 1);
-        for (String key : keys) {
-            args.add(key);
+        List<String> keyList = Arrays.asList(keys);
+        Map<Integer, List<Integer>> slots = SlotUtil.groupBySlot(commandExecutor, keyList);
+        Codec valueCodec = jsonCodec(type);
+        if (slots.size() == 1) {
+            return readAsync(keys[0], valueCodec, JSON_MGET_VALUES, buildMgetArgs(path, keys, null).toArray());
         }
-        args.add(path);
-        RFuture<List<String>> getFuture = commandExecutor.readAsync(keys[0], StringCodec.INSTANCE, JSON_MGET, args.toArray());
-        getFuture.onComplete((res, e) -> {
-            if (e != null) {
-                result.completeExceptionally(e);
-                return;
-            }
 
-            try {
-                result.complete(res.stream().map(it -> GsonUtils.fromJson(it, clazz)).collect(Collectors.toList()));
-            } catch (Throwable t) {
-                result.completeExceptionally(t);
-            }
-        });
-        return new CompletableFutureWrapper<List<T>>(result);
+        Object[] values = new Object[keys.length];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(slots.size());
+        for (List<Integer> positions : slots.values()) {
+            RFuture<List<T>> getFuture = readAsync(keys[positions.get(0)], valueCodec, JSON_MGET_VALUES,
+                    buildMgetArgs(path, keys, positions).toArray());
+            // each group is deserialized by the codec as its reply is decoded
+            futures.add(getFuture.toCompletableFuture().thenAccept(res -> {
+                for (int i = 0; i < positions.size(); i++) {
+                    values[positions.get(i)] = res.get(i);
+                }
+            }));
+        }
+        CompletableFuture<List<T>> result = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> (List<T>) Arrays.asList(values));
+        return new CompletableFutureWrapper<>(result);
+    }
+
+    private List<Object> buildMgetArgs(String path, String[] keys, List<Integer> positions) {
+        int size = positions == null ? keys.length : positions.size();
+        List<Object> args = new ArrayList<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            args.add(keys[positions == null ? i : positions.get(i)]);
+        }
+        args.add(path);
+        return args;
     }
 
     /**
@@ -202,7 +375,7 @@ public class RedisJSON {
         RAssert.notNull(path, "path must not be null");
 
         CompletableFuture result = new CompletableFuture<Class>();
-        RFuture<String> getFuture = commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_TYPE, key, path);
+        RFuture<String> getFuture = readAsync(key, StringCodec.INSTANCE, JSON_TYPE, key, path);
         getFuture.onComplete((res, e) -> {
             if (e != null) {
                 result.completeExceptionally(e);
@@ -279,7 +452,7 @@ public class RedisJSON {
         RAssert.notNull(path, "path must not be null");
         RAssert.notNull(object, "object must not be null");
 
-        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_STRAPPEND, key, path, GsonUtils.toJson(object));
+        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_STRAPPEND, key, path, encode(object));
     }
 
     /**
@@ -299,7 +472,7 @@ public class RedisJSON {
         RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(path, "path must not be null");
 
-        return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_STRLEN, key, path);
+        return readAsync(key, StringCodec.INSTANCE, JSON_STRLEN, key, path);
     }
 
     /**
@@ -323,9 +496,7 @@ public class RedisJSON {
         List<Object> args = new ArrayList<>();
         args.add(key);
         args.add(path);
-        for (Object object : objects) {
-            args.add(GsonUtils.toJson(object));
-        }
+        encodeAll(args, objects);
         return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_ARRAPPEND, args.toArray());
     }
 
@@ -351,9 +522,7 @@ public class RedisJSON {
         args.add(key);
         args.add(path);
         args.add(index);
-        for (Object object : objects) {
-            args.add(GsonUtils.toJson(object));
-        }
+        encodeAll(args, objects);
         return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_ARRINSERT, args.toArray());
     }
 
@@ -374,7 +543,7 @@ public class RedisJSON {
         RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(path, "path must not be null");
 
-        return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_ARRLEN, key, path);
+        return readAsync(key, StringCodec.INSTANCE, JSON_ARRLEN, key, path);
     }
 
     /**
@@ -396,7 +565,7 @@ public class RedisJSON {
         RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(path, "path must not be null");
 
-        return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_ARRTRIM, key, path, start, stop);
+        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_ARRTRIM, key, path, start, stop);
     }
 
     /**
@@ -420,8 +589,8 @@ public class RedisJSON {
         RAssert.notNull(path, "path must not be null");
         RAssert.notNull(scalar, "scalar must not be null");
 
-        return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_ARRINDEX, key, path,
-                GsonUtils.toJson(scalar), start, stop);
+        return readAsync(key, StringCodec.INSTANCE, JSON_ARRINDEX, key, path,
+                encode(scalar), start, stop);
     }
 
     /**
@@ -441,29 +610,122 @@ public class RedisJSON {
     }
 
     public <T> RFuture<T> arrPopAsync(String key, String path, Class<T> clazz, long index) {
+        RAssert.notNull(clazz, "clazz must not be null");
+
+        return arrPopAsync(key, path, (Type) clazz, index);
+    }
+
+    public <T> T arrPop(String key, String path, Type type, long index) {
+        return commandExecutor.get(arrPopAsync(key, path, type, index));
+    }
+
+    public <T> RFuture<T> arrPopAsync(String key, String path, Type type, long index) {
         RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(path, "path must not be null");
-        RAssert.notNull(clazz, "clazz must not be null");
+        RAssert.notNull(type, "type must not be null");
 
-        RFuture<String> getFuture = commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_ARRPOP, key, path, index);
-        return transformRPromiseResult(getFuture, clazz);
+        return commandExecutor.writeAsync(key, jsonCodec(type), JSON_ARRPOP_VALUE, key, path, index);
     }
 
-    private <T> RFuture<T> transformRPromiseResult(RFuture<String> getFuture, Class<T> clazz) {
-        CompletableFuture result = new CompletableFuture();
-        getFuture.onComplete((res, e) -> {
-            if (e != null) {
-                result.completeExceptionally(e);
-                return;
-            }
+    /**
+     * Toggle a boolean value stored at path.
+     * <p>
+     * JSON.TOGGLE <key> <path>
+     *
+     * @param key
+     * @param path a JSONPath
+     * @return for each matching path the new value (1 true, 0 false), or null if the matching value is not a boolean.
+     */
+    public List<Long> toggle(String key, String path) {
+        return commandExecutor.get(toggleAsync(key, path));
+    }
 
-            try {
-                result.complete(GsonUtils.fromJson(res, clazz));
-            } catch (Throwable t) {
-                result.completeExceptionally(t);
+    public RFuture<List<Long>> toggleAsync(String key, String path) {
+        RAssert.notEmpty(key, "key must not be empty");
+        RAssert.notEmpty(path, "path must not be empty");
+
+        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_TOGGLE, key, path);
+    }
+
+    /**
+     * Clear container values (arrays/objects) and set numeric values to 0.
+     * <p>
+     * JSON.CLEAR <key> [path]
+     *
+     * @param key
+     * @param path
+     * @return the number of values cleared.
+     */
+    public long clear(String key, String path) {
+        return commandExecutor.get(clearAsync(key, path));
+    }
+
+    public RFuture<Long> clearAsync(String key, String path) {
+        RAssert.notEmpty(key, "key must not be empty");
+
+        if (path == null) {
+            return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_CLEAR, key);
+        }
+        return commandExecutor.writeAsync(key, StringCodec.INSTANCE, JSON_CLEAR, key, path);
+    }
+
+    /**
+     * Report the size in bytes of the JSON value at path.
+     * <p>
+     * JSON.DEBUG MEMORY <key> [path]
+     *
+     * @param key
+     * @param path a legacy path, e.g. "."
+     * @return
+     */
+    public long debugMemory(String key, String path) {
+        return commandExecutor.get(debugMemoryAsync(key, path));
+    }
+
+    public RFuture<Long> debugMemoryAsync(String key, String path) {
+        RAssert.notEmpty(key, "key must not be empty");
+
+        if (path == null) {
+            return readAsync(key, StringCodec.INSTANCE, JSON_DEBUG_MEMORY, key);
+        }
+        return readAsync(key, StringCodec.INSTANCE, JSON_DEBUG_MEMORY, key, path);
+    }
+
+    private Codec jsonCodec(Type type) {
+        return jsonCodecs.computeIfAbsent(type, t -> new JsonMapperCodec(jsonMapper, t));
+    }
+
+    private ByteBuf encode(Object value) {
+        return commandExecutor.encode(jsonCodec, value);
+    }
+
+    private ByteBuf encodeMergePatch(Object value) {
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            jsonMapper.writeMergePatch(value, new ByteBufOutputStream(out));
+            return out;
+        } catch (IOException e) {
+            out.release();
+            throw new IllegalArgumentException(e);
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    private void encodeAll(List<Object> args, Object[] objects) {
+        int start = args.size();
+        try {
+            for (Object object : objects) {
+                args.add(encode(object));
             }
-        });
-        return new CompletableFutureWrapper<T>(result);
+        } catch (RuntimeException e) {
+            // buffers are only released by the executor once the command has been sent
+            for (int i = start; i < args.size(); i++) {
+                ((ByteBuf) args.get(i)).release();
+            }
+            throw e;
+        }
     }
 
     /**
@@ -483,7 +745,7 @@ public class RedisJSON {
         RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(path, "path must not be null");
 
-        return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_OBJLEN, key, path);
+        return readAsync(key, StringCodec.INSTANCE, JSON_OBJLEN, key, path);
     }
 
     /**
@@ -503,7 +765,91 @@ public class RedisJSON {
         RAssert.notEmpty(key, "key must not be empty");
         RAssert.notNull(path, "path must not be null");
 
-        return commandExecutor.readAsync(key, StringCodec.INSTANCE, JSON_OBJKEYS, key, path);
+        return readAsync(key, StringCodec.INSTANCE, JSON_OBJKEYS, key, path);
+    }
+
+    /**
+     * Write only the changes between two versions of the object stored at key instead of the whole document.
+     * <p>
+     * Both versions are converted to JSON trees with the {@link JsonMapper} and compared structurally, the resulting
+     * JSON.SET, JSON.DEL, JSON.NUMINCRBY and JSON.ARRAPPEND commands are pipelined in one atomic batch.
+     * The document at key is expected to match previous.
+     *
+     * @param key
+     * @param previous the version stored at key, null if there is none
+     * @param current  the version to store, null to delete the document
+     * @return the number of commands sent, 0 if nothing changed.
+     */
+    public int writeDiff(String key, Object previous, Object current) {
+        return commandExecutor.get(writeDiffAsync(key, previous, current));
+    }
+
+    public RFuture<Integer> writeDiffAsync(String key, Object previous, Object current) {
+        return writeDiffAsync(key, previous, current, BatchOptions.defaults().executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+    }
+
+    public RFuture<Integer> writeDiffAsync(String key, Object previous, Object current, BatchOptions options) {
+        RAssert.notEmpty(key, "key must not be empty");
+        RAssert.notNull(options, "options must not be null");
+
+        List<JsonDiff.Op> ops;
+        try {
+            ops = JsonDiff.diff(jsonMapper.toTree(previous), jsonMapper.toTree(current));
+        } catch (IOException e) {
+            return new CompletableFutureWrapper<>(e);
+        }
+        if (ops.isEmpty()) {
+            return new CompletableFutureWrapper<>(CompletableFuture.completedFuture(0));
+        }
+
+        RedisJSONBatch batch = new RedisJSONBatch(commandExecutor, options);
+        RedisJSON redisJSON = batch.getRedisJSON(jsonMapper);
+        for (JsonDiff.Op op : ops) {
+            switch (op.getType()) {
+                case DEL:
+                    redisJSON.delAsync(key, op.getPath());
+                    break;
+                case INCRBY:
+                    redisJSON.incrByAsync(key, op.getPath(), (Long) op.getValue());
+                    break;
+                case ARRAPPEND:
+                    redisJSON.arrAppendAsync(key, op.getPath(), ((List<?>) op.getValue()).toArray());
+                    break;
+                default:
+                    redisJSON.setAsync(key, op.getValue() == null
+                            ? SetArgs.Builder.create(op.getPath(), "null") : SetArgs.Builder.value(op.getPath(), op.getValue()));
+                    break;
+            }
+        }
+        return new CompletableFutureWrapper<>(batch.executeAsync().toCompletableFuture().thenApply(res -> ops.size()));
+    }
+
+    /**
+     * Route pure reads (JSON.GET, JSON.MGET, JSON.TYPE, JSON.STRLEN, JSON.ARRLEN, JSON.ARRINDEX, JSON.OBJLEN,
+     * JSON.OBJKEYS and JSON.DEBUG MEMORY) according to the configured {@link org.redisson.config.ReadMode}, so they
+     * may be served by replicas. By default every command goes to the master, writes always do.
+     *
+     * @param readFromReplicas
+     * @return this
+     */
+    public RedisJSON setReadFromReplicas(boolean readFromReplicas) {
+        this.readFromReplicas = readFromReplicas;
+        return this;
+    }
+
+    public boolean isReadFromReplicas() {
+        return readFromReplicas;
+    }
+
+    private <T, R> RFuture<R> readAsync(String key, Codec codec, RedisCommand<T> command, Object... params) {
+        if (readFromReplicas) {
+            return commandExecutor.readAsync(key, codec, command, params);
+        }
+        return commandExecutor.writeAsync(key, codec, command, params);
+    }
+
+    public JsonMapper getJsonMapper() {
+        return jsonMapper;
     }
 
     public String getName() {
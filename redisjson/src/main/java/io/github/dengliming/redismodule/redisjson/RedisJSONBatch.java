@@ -17,6 +17,7 @@
 package io.github.dengliming.redismodule.redisjson;
 
 import io.github.dengliming.redismodule.common.api.RCommonBatch;
+import io.github.dengliming.redismodule.redisjson.mapper.JsonMapper;
 import org.redisson.api.BatchOptions;
 import org.redisson.command.CommandAsyncExecutor;
 
@@ -29,4 +30,8 @@ public class RedisJSONBatch extends RCommonBatch {
     public RedisJSON getRedisJSON() {
         return new RedisJSON(getExecutorService());
     }
+
+    public RedisJSON getRedisJSON(JsonMapper jsonMapper) {
+        return new RedisJSON(getExecutorService(), jsonMapper);
+    }
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.redisjson.args.SetArgs;
+import org.redisson.api.RFuture;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads newline delimited JSON files into RedisJSON, one document per line.
+ * <p>
+ * The key of every document is read from the member at {@link BulkLoadOptions#keyPointer(String)}. Documents are
+ * grouped by the master node owning the key's slot and each group is pipelined with JSON.SET in a
+ * {@link RedisJSONBatch} of {@link BulkLoadOptions#batchSize(int)} documents. At most
+ * {@link BulkLoadOptions#maxInFlight(int)} batches are pending at a time, reading the file waits for one of them
+ * to complete. Lines which can't be parsed or set are counted as failures and don't stop the load.
+ * <p>
+ * One load runs at a time per loader, the counters can be read while it runs.
+ *
+ * @author dengliming
+ */
+public class RedisJSONBulkLoader {
+
+    private static final int MAX_RECORDED_ERRORS = 100;
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final BulkLoadOptions options;
+    private final String[] keyPointer;
+    private final LongAdder loaded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final List<String> errors = new ArrayList<>();
+    private volatile long startNanos;
+    // 0 while a load is running
+    private volatile long endNanos;
+
+    public RedisJSONBulkLoader(CommandAsyncExecutor commandExecutor, BulkLoadOptions options) {
+        RAssert.notNull(options, "options must not be null");
+        RAssert.notNull(options.getKeyPointer(), "options.keyPointer must not be null");
+
+        this.commandExecutor = commandExecutor;
+        this.options = options;
+        this.keyPointer = parsePointer(options.getKeyPointer());
+    }
+
+    /**
+     * Load every line of file and wait for all documents to be set.
+     *
+     * @param file NDJSON file encoded in UTF-8
+     * @return
+     * @throws IOException if the file can't be read
+     */
+    public synchronized BulkLoadResult load(Path file) throws IOException {
+        RAssert.notNull(file, "file must not be null");
+
+        loaded.reset();
+        failed.reset();
+        synchronized (errors) {
+            errors.clear();
+        }
+        endNanos = 0;
+        startNanos = System.nanoTime();
+
+        Load load = new Load();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(options.getReadBufferSize());
+            byte[] chunk = buffer.array();
+            while (channel.read(buffer) != -1) {
+                int start = 0;
+                int end = buffer.position();
+                for (int i = 0; i < end; i++) {
+                    if (chunk[i] == '\n') {
+                        load.append(chunk, start, i);
+                        load.endLine();
+                        start = i + 1;
+                    }
+                }
+                load.append(chunk, start, end);
+                buffer.clear();
+            }
+            load.endLine();
+        } finally {
+            try {
+                load.finish();
+            } finally {
+                endNanos = System.nanoTime();
+            }
+        }
+        return new BulkLoadResult(getLoadedCount(), getFailedCount(), getElapsedMillis(), getErrors());
+    }
+
+    /**
+     * @return the number of documents set by the current or last load
+     */
+    public long getLoadedCount() {
+        return loaded.sum();
+    }
+
+    /**
+     * @return the number of lines of the current or last load which could not be parsed or set
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * @return the time spent by the current load so far, or by the last load once it returned
+     */
+    public long getElapsedMillis() {
+        long start = startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        long end = endNanos;
+        return ((end == 0 ? System.nanoTime() : end) - start) / 1_000_000;
+    }
+
+    public double getDocsPerSecond() {
+        long elapsedMillis = getElapsedMillis();
+        return elapsedMillis == 0 ? 0 : getLoadedCount() * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * @return the first errors of the current or last load as {@code line <n>: <message>}
+     */
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    private void recordFailure(long lineNumber, Throwable cause) {
+        failed.increment();
+        synchronized (errors) {
+            if (errors.size() < MAX_RECORDED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + (cause == null ? "no reply" : cause.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Read the scalar at the key pointer without building the document.
+     */
+    private String extractKey(String json) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(json));
+        for (String token : keyPointer) {
+            JsonToken type = reader.peek();
+            if (type == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (true) {
+                    if (!reader.hasNext()) {
+                        throw missingKey();
+                    }
+                    if (reader.nextName().equals(token)) {
+                        break;
+                    }
+                    reader.skipValue();
+                }
+            } else if (type == JsonToken.BEGIN_ARRAY) {
+                int index = Integer.parseInt(token);
+                reader.beginArray();
+                for (int i = 0; i < index && reader.hasNext(); i++) {
+                    reader.skipValue();
+                }
+                if (!reader.hasNext()) {
+                    throw missingKey();
+                }
+            } else {
+                throw missingKey();
+            }
+        }
+        JsonToken type = reader.peek();
+        if (type != JsonToken.STRING && type != JsonToken.NUMBER) {
+            throw new IllegalArgumentException(options.getKeyPointer() + " is not a string or number");
+        }
+        return options.getKeyPrefix() + reader.nextString();
+    }
+
+    private IllegalArgumentException missingKey() {
+        return new IllegalArgumentException("no member at " + options.getKeyPointer());
+    }
+
+    private static String[] parsePointer(String pointer) {
+        String[] tokens = pointer.substring(1).split("/", -1);
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = tokens[i].replace("~1", "/").replace("~0", "~");
+        }
+        return tokens;
+    }
+
+    /**
+     * State of one load: the line being read, the documents waiting for a batch and the in-flight window.
+     */
+    private final class Load {
+
+        private final ConnectionManager connectionManager = commandExecutor.getConnectionManager();
+        private final Map<MasterSlaveEntry, Group> groups = new HashMap<>();
+        private final Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+        private byte[] line = new byte[8192];
+        private int lineLength;
+        private long lineNumber;
+
+        void append(byte[] bytes, int start, int end) {
+            int length = end - start;
+            if (lineLength + length > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+            }
+            System.arraycopy(bytes, start, line, lineLength, length);
+            lineLength += length;
+        }
+
+        void endLine() throws IOException {
+            lineNumber++;
+            int length = lineLength;
+            lineLength = 0;
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            String json = new String(line, 0, length, StandardCharsets.UTF_8);
+            if (json.trim().isEmpty()) {
+                return;
+            }
+
+            String key;
+            try {
+                key = extractKey(json);
+            } catch (IOException | RuntimeException e) {
+                recordFailure(lineNumber, e);
+                return;
+            }
+            MasterSlaveEntry entry = connectionManager.getWriteEntry(connectionManager.calcSlot(key));
+            Group group = groups.computeIfAbsent(entry, k -> new Group());
+            group.add(lineNumber, key, json);
+            if (group.size() >= options.getBatchSize()) {
+                groups.remove(entry);
+                send(group);
+            }
+        }
+
+        void finish() throws IOException {
+            try {
+                for (Group group : groups.values()) {
+                    send(group);
+                }
+                groups.clear();
+            } finally {
+                // wait for the whole window to drain
+                inFlight.acquireUninterruptibly(options.getMaxInFlight());
+                inFlight.release(options.getMaxInFlight());
+            }
+        }
+
+        private void send(Group group) throws IOException {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for in-flight batches");
+            }
+
+            RedisJSONBatch batch = new RedisJSONBatch(commandExecutor, options.getBatchOptions());
+            RedisJSON redisJSON = batch.getRedisJSON();
+            List<CompletableFuture<String>> futures = new ArrayList<>(group.size());
+            for (int i = 0; i < group.size(); i++) {
+                RFuture<String> future = redisJSON.setAsync(group.keys.get(i), SetArgs.Builder.create(options.getPath(), group.docs.get(i)));
+                futures.add(future.toCompletableFuture());
+            }
+            batch.executeAsync().whenComplete((res, e) -> {
+                try {
+                    // count every document once, a failed batch may leave some commands without a reply
+                    for (int i = 0; i < futures.size(); i++) {
+                        CompletableFuture<String> future = futures.get(i);
+                        if (future.isDone() && !future.isCompletedExceptionally()) {
+                            loaded.increment();
+                        } else {
+                            recordFailure(group.lineNumbers.get(i), future.isCompletedExceptionally() ? cause(future) : e);
+                        }
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        private Throwable cause(CompletableFuture<String> future) {
+            try {
+                future.join();
+                return null;
+            } catch (RuntimeException e) {
+                return e.getCause() == null ? e : e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Documents waiting to be sent to the same node.
+     */
+    private static final class Group {
+
+        private final List<Long> lineNumbers = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> docs = new ArrayList<>();
+
+        void add(long lineNumber, String key, String json) {
+            lineNumbers.add(lineNumber);
+            keys.add(key);
+            docs.add(json);
+        }
+
+        int size() {
+            return keys.size();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson.args;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.netty.util.ReferenceCountUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Arguments of JSON.MSET, a list of (key, path, value) triplets.
+ */
+public final class MSetArgs {
+
+    private final List<String> keys = new ArrayList<>();
+    private final List<String> paths = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private final List<Boolean> serialized = new ArrayList<>();
+
+    /**
+     * Adds a pre-serialized json document.
+     */
+    public MSetArgs json(String key, String path, String json) {
+        RAssert.notEmpty(json, "json must not be empty");
+
+        return add(key, path, json, true);
+    }
+
+    /**
+     * Adds a value which is serialized when the command is sent.
+     */
+    public MSetArgs value(String key, String path, Object value) {
+        RAssert.notNull(value, "value must not be null");
+
+        return add(key, path, value, false);
+    }
+
+    private MSetArgs add(String key, String path, Object value, boolean isSerialized) {
+        RAssert.notEmpty(key, "key must not be empty");
+        RAssert.notEmpty(path, "path must not be empty");
+
+        keys.add(key);
+        paths.add(path);
+        values.add(value);
+        serialized.add(isSerialized);
+        return this;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * @param positions    positions of the triplets to include, or null for all of them
+     * @param valueEncoder serializes the values added by {@link #value(String, String, Object)}
+     */
+    public List<Object> build(List<Integer> positions, Function<Object, Object> valueEncoder) {
+        int size = positions == null ? keys.size() : positions.size();
+        List<Object> args = new ArrayList<>(size * 3);
+        try {
+            for (int i = 0; i < size; i++) {
+                int position = positions == null ? i : positions.get(i);
+                args.add(keys.get(position));
+                args.add(paths.get(position));
+                args.add(serialized.get(position) ? values.get(position) : valueEncoder.apply(values.get(position)));
+            }
+        } catch (RuntimeException e) {
+            // encoded buffers are only released by the executor once the command has been sent
+            args.forEach(ReferenceCountUtil::release);
+            throw e;
+        }
+        return args;
+    }
+}
@@ -18,14 +18,17 @@ package io.github.dengliming.redismodule.redisjson.args;
 
 import io.github.dengliming.redismodule.common.util.RAssert;
 import io.github.dengliming.redismodule.redisjson.protocol.Keywords;
+import io.github.dengliming.redismodule.redisjson.utils.GsonUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public final class SetArgs {
 
     private String path;
     private String json;
+    private Object value;
     private boolean nx;
     private boolean xx;
 
@@ -44,6 +47,18 @@ public final class SetArgs {
         RAssert.notEmpty(json, "json must not be empty");
 
         this.json = json;
+        this.value = null;
+        return this;
+    }
+
+    /**
+     * Sets a value which is serialized when the command is sent, instead of a pre-serialized json string.
+     */
+    public SetArgs value(Object value) {
+        RAssert.notNull(value, "value must not be null");
+
+        this.value = value;
+        this.json = null;
         return this;
     }
 
@@ -58,10 +73,17 @@ public final class SetArgs {
     }
 
     public List<Object> build(String key) {
+        return build(key, GsonUtils::toJson);
+    }
+
+    /**
+     * @param valueEncoder serializes the value set by {@link #value(Object)}
+     */
+    public List<Object> build(String key, Function<Object, Object> valueEncoder) {
         List<Object> args = new ArrayList<>();
         args.add(key);
         args.add(path);
-        args.add(json);
+        args.add(json != null ? json : valueEncoder.apply(value));
         if (nx) {
             args.add(Keywords.NX);
         } else if (xx) {
@@ -91,5 +113,9 @@ public final class SetArgs {
         public static SetArgs xx(String path, String json) {
             return new SetArgs().path(path).json(json).xx();
         }
+
+        public static SetArgs value(String path, Object value) {
+            return new SetArgs().path(path).value(value);
+        }
     }
 }
@@ -17,8 +17,14 @@
 package io.github.dengliming.redismodule.redisjson.client;
 
 import io.github.dengliming.redismodule.common.BaseRedissonClient;
+import io.github.dengliming.redismodule.redisjson.BulkLoadOptions;
+import io.github.dengliming.redismodule.redisjson.NearCacheOptions;
+import io.github.dengliming.redismodule.redisjson.NearCachedRedisJSON;
 import io.github.dengliming.redismodule.redisjson.RedisJSON;
 import io.github.dengliming.redismodule.redisjson.RedisJSONBatch;
+import io.github.dengliming.redismodule.redisjson.RedisJSONBulkLoader;
+import io.github.dengliming.redismodule.redisjson.mapper.JsonMapper;
+import org.redisson.Redisson;
 import org.redisson.api.BatchOptions;
 import org.redisson.config.Config;
 
@@ -28,10 +34,32 @@ public class RedisJSONClient extends BaseRedissonClient {
         super(config);
     }
 
+    public RedisJSONClient(Redisson redisson) {
+        super(redisson);
+    }
+
     public RedisJSON getRedisJSON() {
         return new RedisJSON(getCommandExecutor());
     }
 
+    public RedisJSON getRedisJSON(JsonMapper jsonMapper) {
+        return new RedisJSON(getCommandExecutor(), jsonMapper);
+    }
+
+    /**
+     * Create a {@link RedisJSON} with a client side cache, it should be closed when no longer used.
+     *
+     * @param options
+     * @return
+     */
+    public NearCachedRedisJSON createNearCachedRedisJSON(NearCacheOptions options) {
+        return new NearCachedRedisJSON(getCommandExecutor(), options);
+    }
+
+    public RedisJSONBulkLoader createBulkLoader(BulkLoadOptions options) {
+        return new RedisJSONBulkLoader(getCommandExecutor(), options);
+    }
+
     public RedisJSONBatch createRedisJSONBatch() {
         return this.createRedisJSONBatch(BatchOptions.defaults());
     }
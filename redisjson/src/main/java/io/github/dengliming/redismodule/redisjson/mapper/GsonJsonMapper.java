@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson.mapper;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import io.github.dengliming.redismodule.common.util.RAssert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link JsonMapper} backed by Gson. Type adapters are resolved once per type and reused.
+ *
+ * @author dengliming
+ */
+public class GsonJsonMapper implements JsonMapper {
+
+    private final Gson gson;
+    // reads integral numbers of trees as Long instead of Double
+    private final Gson treeGson;
+    // keeps null members, which delete members in merge patches
+    private final Gson patchGson;
+    private final ConcurrentMap<Type, TypeAdapter<?>> adapters = new ConcurrentHashMap<>();
+
+    public GsonJsonMapper() {
+        this(new Gson());
+    }
+
+    public GsonJsonMapper(Gson gson) {
+        RAssert.notNull(gson, "gson must not be null");
+
+        this.gson = gson;
+        this.treeGson = gson.newBuilder().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
+        this.patchGson = gson.serializeNulls() ? gson : gson.newBuilder().serializeNulls().create();
+    }
+
+    @Override
+    public <T> T read(InputStream in, Type type) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        // same leniency as Gson#fromJson
+        reader.setLenient(true);
+        try {
+            return (T) getAdapter(type).read(reader);
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void write(Object value, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try {
+            gson.toJson(value, writer);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void writeMergePatch(Object value, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try {
+            patchGson.toJson(value, writer);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public Object toTree(Object value) throws IOException {
+        try {
+            return treeGson.fromJson(gson.toJsonTree(value), Object.class);
+        } catch (JsonParseException e) {
+            throw new IOException(e);
+        }
+    }
+
+    public <T> TypeAdapter<T> getAdapter(Type type) {
+        return (TypeAdapter<T>) adapters.computeIfAbsent(type, t -> gson.getAdapter(TypeToken.get(t)));
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+}
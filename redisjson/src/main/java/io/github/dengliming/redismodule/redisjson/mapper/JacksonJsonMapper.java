@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson.mapper;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dengliming.redismodule.common.util.RAssert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link JsonMapper} backed by a Jackson {@link ObjectMapper}. Java types are resolved once per type and reused.
+ *
+ * @author dengliming
+ */
+public class JacksonJsonMapper implements JsonMapper {
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Type, JavaType> javaTypes = new ConcurrentHashMap<>();
+    // created on first use, keeps null members which delete members in merge patches
+    private volatile ObjectMapper patchMapper;
+
+    public JacksonJsonMapper() {
+        this(new ObjectMapper());
+    }
+
+    public JacksonJsonMapper(ObjectMapper objectMapper) {
+        RAssert.notNull(objectMapper, "objectMapper must not be null");
+
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public <T> T read(InputStream in, Type type) throws IOException {
+        return objectMapper.readValue(in, javaTypes.computeIfAbsent(type, t -> objectMapper.getTypeFactory().constructType(t)));
+    }
+
+    @Override
+    public void write(Object value, OutputStream out) throws IOException {
+        objectMapper.writeValue(out, value);
+    }
+
+    @Override
+    public void writeMergePatch(Object value, OutputStream out) throws IOException {
+        ObjectMapper mapper = patchMapper;
+        if (mapper == null) {
+            mapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.ALWAYS);
+            patchMapper = mapper;
+        }
+        mapper.writeValue(out, value);
+    }
+
+    @Override
+    public Object toTree(Object value) throws IOException {
+        try {
+            return objectMapper.convertValue(value, Object.class);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson.mapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Converts between Java objects and the JSON documents stored by RedisJSON.
+ * <p>
+ * Implementations read replies straight from the network buffer and write arguments straight into it,
+ * so no intermediate {@link String} copy of the document is created.
+ *
+ * @author dengliming
+ */
+public interface JsonMapper {
+
+    /**
+     * Parses a JSON document into an instance of the given class.
+     *
+     * @param in    the UTF-8 encoded document
+     * @param clazz the target class
+     * @param <T>   the target type
+     * @return the parsed value, or {@code null} for a JSON null
+     * @throws IOException if the document can not be read or parsed
+     */
+    default <T> T read(InputStream in, Class<T> clazz) throws IOException {
+        return read(in, (Type) clazz);
+    }
+
+    /**
+     * Parses a JSON document into an instance of the given, possibly generic, type such as {@code List<Order>}.
+     *
+     * @param in   the UTF-8 encoded document
+     * @param type the target type
+     * @param <T>  the target type
+     * @return the parsed value, or {@code null} for a JSON null
+     * @throws IOException if the document can not be read or parsed
+     */
+    <T> T read(InputStream in, Type type) throws IOException;
+
+    /**
+     * Serializes a value as UTF-8 encoded JSON.
+     *
+     * @param value the value to serialize
+     * @param out   the target stream
+     * @throws IOException if the value can not be written
+     */
+    void write(Object value, OutputStream out) throws IOException;
+
+    /**
+     * Serializes a JSON merge patch (RFC 7396) as UTF-8 encoded JSON. Unlike {@link #write(Object, OutputStream)}
+     * null members must be written, as they delete the member they patch.
+     *
+     * @param value the patch to serialize
+     * @param out   the target stream
+     * @throws IOException if the value can not be written
+     */
+    default void writeMergePatch(Object value, OutputStream out) throws IOException {
+        write(value, out);
+    }
+
+    /**
+     * Converts a value into its generic JSON tree: {@link java.util.Map}, {@link java.util.List}, {@link String},
+     * {@link Number}, {@link Boolean} or null. Integral numbers should stay integral.
+     *
+     * @param value the value to convert
+     * @return the tree
+     * @throws IOException if the value can not be converted
+     */
+    default Object toTree(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(value, out);
+        return read(new ByteArrayInputStream(out.toByteArray()), Object.class);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson.mapper;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Codec which writes values with a {@link JsonMapper} directly into a pooled buffer
+ * and reads replies directly from the network buffer into the given type.
+ *
+ * @author dengliming
+ */
+public class JsonMapperCodec extends BaseCodec {
+
+    private final Encoder encoder;
+    private final Decoder<Object> decoder;
+
+    public JsonMapperCodec(JsonMapper jsonMapper) {
+        this(jsonMapper, Object.class);
+    }
+
+    public JsonMapperCodec(JsonMapper jsonMapper, Type type) {
+        RAssert.notNull(jsonMapper, "jsonMapper must not be null");
+        RAssert.notNull(type, "type must not be null");
+
+        this.encoder = in -> {
+            ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
+            try {
+                jsonMapper.write(in, new ByteBufOutputStream(out));
+                return out;
+            } catch (IOException | RuntimeException e) {
+                out.release();
+                throw e;
+            }
+        };
+        this.decoder = (buf, state) -> jsonMapper.read(new ByteBufInputStream(buf), type);
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+}
@@ -32,9 +32,13 @@ public interface RedisCommands {
 
     RedisCommand JSON_DEL = new RedisCommand<>("JSON.DEL", new LongReplayConvertor());
     RedisCommand JSON_SET = new RedisCommand<>("JSON.SET", new ObjectDecoder(new StringReplayDecoder()));
+    RedisCommand JSON_MSET = new RedisCommand<>("JSON.MSET", new ObjectDecoder(new StringReplayDecoder()));
+    RedisCommand JSON_MERGE = new RedisCommand<>("JSON.MERGE", new ObjectDecoder(new StringReplayDecoder()));
     RedisCommand JSON_GET = new RedisCommand<>("JSON.GET", new ObjectDecoder(new StringDataDecoder()));
+    RedisCommand JSON_GET_VALUE = new RedisCommand<>("JSON.GET");
     RedisCommand JSON_TYPE = new RedisCommand<>("JSON.TYPE", new ObjectDecoder(new StringDataDecoder()));
     RedisCommand JSON_MGET = new RedisCommand<>("JSON.MGET", new ObjectListReplayDecoder<String>());
+    RedisCommand JSON_MGET_VALUES = new RedisCommand<>("JSON.MGET", new ObjectListReplayDecoder<>());
     RedisCommand JSON_NUMINCRBY = new RedisCommand<>("JSON.NUMINCRBY", new ObjectDecoder(new StringDataDecoder()));
     RedisCommand JSON_NUMMULTBY = new RedisCommand<>("JSON.NUMMULTBY", new ObjectDecoder(new StringDataDecoder()));
     RedisCommand JSON_STRAPPEND = new RedisCommand<>("JSON.STRAPPEND", new LongReplayConvertor());
@@ -45,6 +49,10 @@ public interface RedisCommands {
     RedisCommand JSON_ARRINSERT = new RedisCommand<>("JSON.ARRINSERT", new LongReplayConvertor());
     RedisCommand JSON_ARRINDEX = new RedisCommand<>("JSON.ARRINDEX", new LongReplayConvertor());
     RedisCommand JSON_ARRPOP = new RedisCommand<>("JSON.ARRPOP", new ObjectDecoder(new StringDataDecoder()));
+    RedisCommand JSON_ARRPOP_VALUE = new RedisCommand<>("JSON.ARRPOP");
     RedisCommand JSON_OBJLEN = new RedisCommand<>("JSON.OBJLEN", new LongReplayConvertor());
     RedisCommand<List<Object>> JSON_OBJKEYS = new RedisCommand("JSON.OBJKEYS", new ObjectListReplayDecoder<>());
+    RedisCommand<List<Long>> JSON_TOGGLE = new RedisCommand("JSON.TOGGLE", new ObjectListReplayDecoder<>());
+    RedisCommand JSON_CLEAR = new RedisCommand<>("JSON.CLEAR", new LongReplayConvertor());
+    RedisCommand JSON_DEBUG_MEMORY = new RedisCommand<>("JSON.DEBUG", "MEMORY", new LongReplayConvertor());
 }
@@ -18,6 +18,7 @@ package io.github.dengliming.redismodule.redisjson;
 
 import io.github.dengliming.redismodule.common.util.TestSettings;
 import io.github.dengliming.redismodule.redisjson.client.RedisJSONClient;
+import io.github.dengliming.redismodule.redisjson.mapper.JsonMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.redisson.config.Config;
@@ -48,6 +49,14 @@ public abstract class AbstractTest {
         return redisJSONClient == null ? null : redisJSONClient.getRedisJSON();
     }
 
+    public RedisJSON getRedisJSON(JsonMapper jsonMapper) {
+        return redisJSONClient == null ? null : redisJSONClient.getRedisJSON(jsonMapper);
+    }
+
+    public RedisJSONBulkLoader createBulkLoader(BulkLoadOptions options) {
+        return redisJSONClient == null ? null : redisJSONClient.createBulkLoader(options);
+    }
+
     public RedisJSONBatch getRedisJSONBatch() {
         return redisJSONClient == null ? null : redisJSONClient.createRedisJSONBatch();
     }
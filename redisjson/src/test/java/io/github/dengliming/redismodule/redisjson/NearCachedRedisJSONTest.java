@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redisjson;
+
+import io.github.dengliming.redismodule.common.util.TestSettings;
+import io.github.dengliming.redismodule.redisjson.args.GetArgs;
+import io.github.dengliming.redismodule.redisjson.args.SetArgs;
+import io.github.dengliming.redismodule.redisjson.client.RedisJSONClient;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.protocol.RedisStrictCommand;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.config.Config;
+import org.redisson.config.Protocol;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author dengliming
+ */
+public class NearCachedRedisJSONTest extends AbstractTest {
+
+    private static final RedisStrictCommand<Long> CLIENT_KILL = new RedisStrictCommand<>("CLIENT", "KILL");
+
+    @Test
+    public void testNearCache() throws InterruptedException {
+        Config config = new Config();
+        config.setProtocol(Protocol.RESP3);
+        config.useSingleServer().setAddress("redis://" + TestSettings.host() + ":" + TestSettings.port());
+        RedisJSONClient client = new RedisJSONClient(config);
+        try (NearCachedRedisJSON nearCache = client.createNearCachedRedisJSON(new NearCacheOptions()
+                .maxSize(100)
+                .timeToLive(1, TimeUnit.MINUTES))) {
+            String key = "foo";
+            assertThat(nearCache.set(key, SetArgs.Builder.value(".", Collections.singletonMap("id", 1)))).isEqualTo("OK");
+
+            GetArgs getArgs = new GetArgs().path(".id");
+            assertThat(nearCache.get(key, Integer.class, getArgs)).isEqualTo(1);
+            assertThat(nearCache.get(key, Integer.class, getArgs)).isEqualTo(1);
+            assertThat(nearCache.mget(".id", Integer.class, key)).containsExactly(1);
+            assertThat(nearCache.getHitCount()).isEqualTo(2);
+            assertThat(nearCache.getMissCount()).isEqualTo(1);
+
+            // local writes drop the cached document
+            assertThat(nearCache.incrBy(key, ".id", 1)).isEqualTo("2");
+            assertThat(nearCache.get(key, Integer.class, getArgs)).isEqualTo(2);
+
+            // writes of other clients are reported by invalidation messages
+            getRedisJSON().incrBy(key, ".id", 1);
+            for (int i = 0; i < 50 && nearCache.getSize() > 0; i++) {
+                Thread.sleep(100);
+            }
+            assertThat(nearCache.getSize()).isZero();
+            assertThat(nearCache.get(key, Integer.class, getArgs)).isEqualTo(3);
+            assertThat(nearCache.getInvalidationCount()).isGreaterThanOrEqualTo(2);
+
+            Map<String, Object> actual = nearCache.get(key, Map.class, new GetArgs().path("."));
+            assertThat(actual).containsEntry("id", 3.0);
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    public void testNearCacheTracksAgainAfterReconnect() throws InterruptedException {
+        Config config = new Config();
+        config.setProtocol(Protocol.RESP3);
+        config.useSingleServer().setAddress("redis://" + TestSettings.host() + ":" + TestSettings.port());
+        RedisJSONClient client = new RedisJSONClient(config);
+        try (NearCachedRedisJSON nearCache = client.createNearCachedRedisJSON(new NearCacheOptions()
+                .maxSize(100)
+                .timeToLive(1, TimeUnit.MINUTES))) {
+            String key = "foo";
+            GetArgs getArgs = new GetArgs().path(".id");
+            assertThat(nearCache.set(key, SetArgs.Builder.value(".", Collections.singletonMap("id", 1)))).isEqualTo("OK");
+            assertThat(nearCache.get(key, Integer.class, getArgs)).isEqualTo(1);
+            assertThat(nearCache.getSize()).isEqualTo(1);
+
+            // the tracked connection loses its tracking state when it is killed, the pubsub connection survives
+            CommandAsyncExecutor commandExecutor = client.getCommandExecutor();
+            List<CompletableFuture<Long>> killed = commandExecutor.writeAllAsync(CLIENT_KILL, "TYPE", "normal", "SKIPME", "yes");
+            CompletableFuture.allOf(killed.toArray(new CompletableFuture[0])).join();
+
+            getRedisJSON().incrBy(key, ".id", 1);
+            assertThat(awaitValue(nearCache, key, getArgs, 2)).isEqualTo(2);
+
+            // writes of other clients are reported again
+            getRedisJSON().incrBy(key, ".id", 1);
+            assertThat(awaitValue(nearCache, key, getArgs, 3)).isEqualTo(3);
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private static Integer awaitValue(NearCachedRedisJSON nearCache, String key, GetArgs getArgs, int expected) throws InterruptedException {
+        Integer value = null;
+        for (int i = 0; i < 100; i++) {
+            value = nearCache.get(key, Integer.class, getArgs);
+            if (value != null && value == expected) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        return value;
+    }
+}
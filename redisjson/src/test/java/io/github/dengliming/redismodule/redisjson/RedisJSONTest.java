@@ -16,12 +16,23 @@
 
 package io.github.dengliming.redismodule.redisjson;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.reflect.TypeToken;
 import io.github.dengliming.redismodule.redisjson.args.GetArgs;
+import io.github.dengliming.redismodule.redisjson.args.MSetArgs;
 import io.github.dengliming.redismodule.redisjson.args.SetArgs;
+import io.github.dengliming.redismodule.redisjson.mapper.JacksonJsonMapper;
 import io.github.dengliming.redismodule.redisjson.utils.GsonUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.redisson.api.BatchResult;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -62,6 +73,24 @@ public class RedisJSONTest extends AbstractTest {
         assertThat(redisJSON.mget(".", Map.class, key, "null")).hasSize(2);
     }
 
+    @Test
+    public void testMget() {
+        RedisJSON redisJSON = getRedisJSON();
+        String[] keys = new String[20];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "product:" + i;
+            if (i % 4 != 3) {
+                assertThat(redisJSON.set(keys[i], SetArgs.Builder.create(".", String.valueOf(i)))).isEqualTo("OK");
+            }
+        }
+
+        List<Integer> values = redisJSON.mget(".", Integer.class, keys);
+        assertThat(values).hasSize(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(values.get(i)).isEqualTo(i % 4 != 3 ? Integer.valueOf(i) : null);
+        }
+    }
+
     @Test
     public void testIncrBy() {
         RedisJSON redisJSON = getRedisJSON();
@@ -197,4 +226,146 @@ public class RedisJSONTest extends AbstractTest {
         assertThat(res.getResponses().get(1)).isEqualTo(2L);
         assertThat(res.getResponses().get(2)).isEqualTo(0L);
     }
+
+    @Test
+    public void testJacksonMapper() {
+        RedisJSON redisJSON = getRedisJSON(new JacksonJsonMapper());
+        String key = "foo";
+        Map<String, Object> m = new HashMap<>();
+        m.put("id", 1);
+        m.put("names", new ArrayList<>());
+        assertThat(redisJSON.set(key, SetArgs.Builder.value(".", m))).isEqualTo("OK");
+
+        assertThat(redisJSON.arrAppend(key, ".names", "zhansan", "lisi")).isEqualTo(2);
+        Map<String, Object> actual = redisJSON.get(key, Map.class, new GetArgs().path("."));
+        assertThat(actual).isNotNull().containsEntry("id", 1).containsEntry("names", Arrays.asList("zhansan", "lisi"));
+
+        assertThat(redisJSON.mget(".names[0]", String.class, key, "null")).containsExactly("zhansan", null);
+        assertThat(redisJSON.arrPop(key, ".names", String.class, 0)).isEqualTo("zhansan");
+
+        // merge patches keep null members even if the mapper skips them
+        RedisJSON nonNull = getRedisJSON(new JacksonJsonMapper(new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL)));
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("id", null);
+        assertThat(nonNull.merge(key, ".", patch)).isEqualTo("OK");
+        assertThat(nonNull.get(key, Map.class, new GetArgs().path("."))).doesNotContainKey("id");
+    }
+
+    @Test
+    public void testGenericType() {
+        RedisJSON redisJSON = getRedisJSON();
+        String key = "foo";
+        Map<String, Integer> price = new HashMap<>();
+        price.put("amount", 100);
+        assertThat(redisJSON.set(key, SetArgs.Builder.value(".", Arrays.asList(price, price)))).isEqualTo("OK");
+
+        Type type = new TypeToken<List<Map<String, Integer>>>() { }.getType();
+        List<Map<String, Integer>> actual = redisJSON.get(key, type, new GetArgs().path("."));
+        assertThat(actual).hasSize(2);
+        assertThat(actual.get(0)).containsEntry("amount", 100);
+
+        List<List<Map<String, Integer>>> values = redisJSON.mget(".", type, key, "null");
+        assertThat(values.get(0)).isEqualTo(actual);
+        assertThat(values.get(1)).isNull();
+
+        Map<String, Integer> popped = redisJSON.arrPop(key, ".", new TypeToken<Map<String, Integer>>() { }.getType(), -1);
+        assertThat(popped).containsEntry("amount", 100);
+    }
+
+    @Test
+    public void testMsetAndMerge() {
+        RedisJSON redisJSON = getRedisJSON();
+        Map<String, Object> m = new HashMap<>();
+        m.put("id", 1);
+        m.put("name", "lisi");
+        m.put("enabled", true);
+        m.put("tags", Arrays.asList("a", "b"));
+        assertThat(redisJSON.mset(new MSetArgs()
+                .value("foo", ".", m)
+                .json("bar", ".", "{\"id\":2}"))).isEqualTo("OK");
+        assertThat(redisJSON.mget(".id", Integer.class, "foo", "bar")).containsExactly(1, 2);
+
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("name", "zhangsan");
+        patch.put("id", null);
+        assertThat(redisJSON.merge("foo", ".", patch)).isEqualTo("OK");
+        Map<String, Object> actual = redisJSON.get("foo", Map.class, new GetArgs().path("."));
+        assertThat(actual).containsEntry("name", "zhangsan").doesNotContainKey("id");
+
+        Map<String, Object> paths = redisJSON.getPaths("foo", Object.class, ".name", ".enabled");
+        assertThat(paths).containsEntry(".name", "zhangsan").containsEntry(".enabled", true);
+
+        assertThat(redisJSON.toggle("foo", "$.enabled")).containsExactly(0L);
+        assertThat(redisJSON.clear("foo", "$.tags")).isEqualTo(1);
+        assertThat(redisJSON.arrLen("foo", ".tags")).isEqualTo(0);
+        assertThat(redisJSON.debugMemory("foo", ".")).isPositive();
+    }
+
+    @Test
+    public void testWriteDiff() {
+        RedisJSON redisJSON = getRedisJSON();
+        Map<String, Object> previous = new HashMap<>();
+        previous.put("id", 1);
+        previous.put("name", "lisi");
+        previous.put("age", 20);
+        previous.put("tags", new ArrayList<>(Arrays.asList("a", "b")));
+        assertThat(redisJSON.writeDiff("foo", null, previous)).isEqualTo(1);
+
+        Map<String, Object> current = new HashMap<>(previous);
+        current.remove("name");
+        current.put("age", 22);
+        current.put("tags", Arrays.asList("a", "b", "c"));
+        current.put("city", "shenzhen");
+        assertThat(redisJSON.writeDiff("foo", previous, current)).isEqualTo(4);
+        assertThat(redisJSON.writeDiff("foo", current, current)).isEqualTo(0);
+
+        Map<String, Object> actual = redisJSON.get("foo", Map.class, new GetArgs().path("."));
+        assertThat(actual).doesNotContainKey("name").containsEntry("city", "shenzhen");
+        assertThat(redisJSON.get("foo", Integer.class, new GetArgs().path(".age"))).isEqualTo(22);
+        assertThat(redisJSON.arrLen("foo", ".tags")).isEqualTo(3);
+
+        assertThat(redisJSON.writeDiff("foo", current, null)).isEqualTo(1);
+        assertThat(redisJSON.get("foo", Map.class, new GetArgs().path("."))).isNull();
+    }
+
+    @Test
+    public void testBulkLoad(@TempDir Path dir) throws IOException, InterruptedException {
+        Path file = dir.resolve("docs.ndjson");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add("{\"user\":{\"id\":" + i + "},\"name\":\"user" + i + "\"}");
+        }
+        lines.add("{\"name\":\"no id\"}");
+        lines.add("{broken");
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        RedisJSONBulkLoader loader = createBulkLoader(new BulkLoadOptions()
+                .keyPointer("/user/id")
+                .keyPrefix("user:")
+                .batchSize(100)
+                .maxInFlight(2));
+        BulkLoadResult result = loader.load(file);
+        assertThat(result.getLoaded()).isEqualTo(1000);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(2).first().asString().startsWith("line 1001");
+        assertThat(getRedisJSON().get("user:999", String.class, new GetArgs().path(".name"))).isEqualTo("user999");
+
+        // the figures describe the last load and stop changing once it returned
+        long elapsedMillis = loader.getElapsedMillis();
+        assertThat(elapsedMillis).isEqualTo(result.getElapsedMillis());
+        Thread.sleep(20);
+        assertThat(loader.getElapsedMillis()).isEqualTo(elapsedMillis);
+    }
+
+    @Test
+    public void testReadFromReplicas() {
+        RedisJSON redisJSON = getRedisJSON().setReadFromReplicas(true);
+        assertThat(redisJSON.isReadFromReplicas()).isTrue();
+        assertThat(redisJSON.set("foo", SetArgs.Builder.create(".", "{\"tags\":[\"a\",\"b\",\"c\"]}"))).isEqualTo("OK");
+        assertThat(redisJSON.arrLen("foo", ".tags")).isEqualTo(3);
+        // writes are sent to the master whatever the read mode
+        assertThat(redisJSON.arrPop("foo", ".tags", String.class, -1)).isEqualTo("c");
+        assertThat(redisJSON.arrTrim("foo", ".tags", 0, 0)).isEqualTo(1);
+        assertThat(redisJSON.del("foo", ".")).isEqualTo(1);
+    }
 }
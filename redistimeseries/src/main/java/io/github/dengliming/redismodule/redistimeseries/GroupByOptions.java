@@ -40,6 +40,10 @@ public class GroupByOptions {
         return this;
     }
 
+    Reducer getReducer() {
+        return reducer;
+    }
+
     public void build(List<Object> args) {
         if (groupByLabel != null && reducer != null) {
             args.add(Keywords.GROUPBY);
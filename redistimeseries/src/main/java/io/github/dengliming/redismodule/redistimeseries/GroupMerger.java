@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.dengliming.redismodule.redistimeseries.Sample.Value;
+
+/**
+ * Re-applies a decomposable GROUPBY reducer to the groups returned by several cluster nodes,
+ * so that groups with the same key are merged into one series. COUNT limits each node separately, so merged
+ * series are cut back to count samples.
+ *
+ * @author dengliming
+ */
+final class GroupMerger {
+
+    private static final String SOURCE_LABEL = "__source__";
+
+    private GroupMerger() {
+    }
+
+    /**
+     * @param reverse whether the samples are in descending timestamp order, as returned by TS.MREVRANGE
+     * @param count maximum samples per series, 0 for no limit
+     */
+    static List<TimeSeries> merge(List<TimeSeries> groups, Reducer reducer, boolean reverse, int count) {
+        if (groups.size() < 2 || reducer == null || !reducer.isDecomposable()) {
+            return groups;
+        }
+
+        Map<String, TimeSeries> merged = new LinkedHashMap<>();
+        for (TimeSeries group : groups) {
+            TimeSeries previous = merged.get(group.getKey());
+            merged.put(group.getKey(), previous == null ? group : merge(previous, group, reducer, reverse, count));
+        }
+        if (merged.size() == groups.size()) {
+            return groups;
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static TimeSeries merge(TimeSeries left, TimeSeries right, Reducer reducer, boolean reverse, int count) {
+        List<Value> leftValues = left.getValues();
+        List<Value> rightValues = right.getValues();
+        int limit = count > 0 ? count : Integer.MAX_VALUE;
+
+        SampleBlock block = new SampleBlock(Math.min(limit, leftValues.size() + rightValues.size()));
+        int i = 0;
+        int j = 0;
+        while ((i < leftValues.size() || j < rightValues.size()) && block.size() < limit) {
+            if (j == rightValues.size()) {
+                Value value = leftValues.get(i++);
+                block.add(value.getTimestamp(), value.getValue());
+            } else if (i == leftValues.size()) {
+                Value value = rightValues.get(j++);
+                block.add(value.getTimestamp(), value.getValue());
+            } else {
+                Value l = leftValues.get(i);
+                Value r = rightValues.get(j);
+                int cmp = Long.compare(l.getTimestamp(), r.getTimestamp());
+                if (cmp == 0) {
+                    block.add(l.getTimestamp(), reduce(reducer, l.getValue(), r.getValue()));
+                    i++;
+                    j++;
+                } else if (cmp < 0 != reverse) {
+                    block.add(l.getTimestamp(), l.getValue());
+                    i++;
+                } else {
+                    block.add(r.getTimestamp(), r.getValue());
+                    j++;
+                }
+            }
+        }
+
+        TimeSeries result = new TimeSeries(left.getKey()).labels(mergeLabels(left.getLabels(), right.getLabels()));
+        if (left.getSampleBlock() != null) {
+            return result.sampleBlock(block);
+        }
+        return result.values(block.asValues());
+    }
+
+    private static double reduce(Reducer reducer, double left, double right) {
+        switch (reducer) {
+            case MIN:
+                return Math.min(left, right);
+            case MAX:
+                return Math.max(left, right);
+            default:
+                // SUM and COUNT both add up the partial results
+                return left + right;
+        }
+    }
+
+    private static List<Label> mergeLabels(List<Label> left, List<Label> right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        List<Label> labels = new ArrayList<>(left.size());
+        for (Label label : left) {
+            if (SOURCE_LABEL.equals(label.getKey())) {
+                String sources = label.getValue();
+                for (Label other : right) {
+                    if (SOURCE_LABEL.equals(other.getKey())) {
+                        sources = sources + "," + other.getValue();
+                    }
+                }
+                labels.add(new Label(SOURCE_LABEL, sources));
+            } else {
+                labels.add(label);
+            }
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import org.redisson.api.RFuture;
+import org.redisson.command.CommandAsyncExecutor;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pages through a TS.RANGE / TS.REVRANGE window with COUNT, continuing after the last timestamp seen,
+ * so only one page (two with prefetch) is held in memory regardless of the size of the window.
+ * <p>
+ * With aggregation the next page starts at the bucket next to the last returned one, and START / END alignment is
+ * pinned to the bounds of the first page. Bucket timestamps reported as END or MID are mapped back to the bucket
+ * start before moving on.
+ *
+ * @author dengliming
+ */
+public class RangeIterator implements Iterator<SampleBlock> {
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final RedisTimeSeries redisTimeSeries;
+    private final String key;
+    private final RangeOptions pageOptions;
+    private final int pageSize;
+    private final long step;
+    private final long bucketOffset;
+    private final boolean reverse;
+    private final boolean prefetch;
+
+    private long from;
+    private long to;
+    private boolean exhausted;
+    private RFuture<SampleBlock> pending;
+    private SampleBlock page;
+
+    RangeIterator(CommandAsyncExecutor commandExecutor, RedisTimeSeries redisTimeSeries, String key, long from, long to,
+                  RangeOptions rangeOptions, int pageSize, boolean reverse, boolean prefetch) {
+        RAssert.notNull(key, "key must not be null");
+        RAssert.isTrue(pageSize > 0, "pageSize must be positive");
+
+        this.commandExecutor = commandExecutor;
+        this.redisTimeSeries = redisTimeSeries;
+        this.key = key;
+        this.from = from;
+        this.to = to;
+        this.pageSize = pageSize;
+        this.reverse = reverse;
+        this.prefetch = prefetch;
+        RangeOptions options = rangeOptions == null ? new RangeOptions() : rangeOptions;
+        this.pageOptions = options.withCount(pageSize);
+        this.step = options.getAggregationType() != null && options.getTimeBucket() > 0 ? options.getTimeBucket() : 1;
+        this.bucketOffset = options.getAggregationType() != null ? bucketOffset(options.getBucketTimestamp(), options.getTimeBucket()) : 0;
+        if (step > 1 && options.getAggregationAlign() != null) {
+            // the alignment is relative to the query bounds, which move between pages
+            pageOptions.alignTimestamp(options.getAggregationAlign() == Align.START ? from : to);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (page != null) {
+            return true;
+        }
+        if (pending == null) {
+            if (exhausted) {
+                return false;
+            }
+            fetch();
+        }
+
+        SampleBlock fetched = commandExecutor.get(pending);
+        pending = null;
+        advance(fetched);
+        if (fetched.isEmpty()) {
+            return false;
+        }
+        page = fetched;
+        return true;
+    }
+
+    @Override
+    public SampleBlock next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SampleBlock current = page;
+        page = null;
+        return current;
+    }
+
+    private void fetch() {
+        if (reverse) {
+            pending = redisTimeSeries.revRangeBlockAsync(key, from, to, pageOptions);
+        } else {
+            pending = redisTimeSeries.rangeBlockAsync(key, from, to, pageOptions);
+        }
+    }
+
+    private void advance(SampleBlock fetched) {
+        if (fetched.size() < pageSize) {
+            exhausted = true;
+            return;
+        }
+        long last = fetched.getTimestamp(fetched.size() - 1) - bucketOffset;
+        if (reverse) {
+            // last is the start of the earliest bucket returned, the bucket before it ends right below
+            to = last - 1;
+        } else {
+            from = last + step;
+        }
+        exhausted = from > to;
+        if (!exhausted && prefetch) {
+            fetch();
+        }
+    }
+
+    private static long bucketOffset(BucketTimestamp bucketTimestamp, long timeBucket) {
+        if (bucketTimestamp == null) {
+            return 0;
+        }
+        switch (bucketTimestamp) {
+            case END:
+                return timeBucket;
+            case MID:
+                return timeBucket / 2;
+            default:
+                return 0;
+        }
+    }
+}
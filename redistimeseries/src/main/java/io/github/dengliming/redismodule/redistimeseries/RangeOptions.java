@@ -30,6 +30,13 @@ public class RangeOptions {
     private Align aggregationAlign;
     private long timeBucket;
     private boolean withLabels;
+    private boolean latest;
+    private long[] filterByTimestamps;
+    private Double filterMinValue;
+    private Double filterMaxValue;
+    private BucketTimestamp bucketTimestamp;
+    private boolean empty;
+    private Long alignTimestamp;
 
     public RangeOptions max(int count) {
         this.count = count;
@@ -54,7 +61,123 @@ public class RangeOptions {
         return this;
     }
 
+    /**
+     * Report the latest, possibly partial, bucket of a compaction series
+     *
+     * @return RangeOptions
+     */
+    public RangeOptions latest() {
+        this.latest = true;
+        return this;
+    }
+
+    /**
+     * Only return samples whose timestamp is one of the given timestamps
+     *
+     * @param timestamps timestamps to keep
+     * @return RangeOptions
+     */
+    public RangeOptions filterByTimestamps(long... timestamps) {
+        this.filterByTimestamps = timestamps;
+        return this;
+    }
+
+    /**
+     * Only return samples whose value is between min and max, inclusive
+     *
+     * @param min minimum value
+     * @param max maximum value
+     * @return RangeOptions
+     */
+    public RangeOptions filterByValue(double min, double max) {
+        this.filterMinValue = min;
+        this.filterMaxValue = max;
+        return this;
+    }
+
+    /**
+     * Timestamp reported for each aggregation bucket, the bucket start by default
+     *
+     * @param bucketTimestamp bucket timestamp
+     * @return RangeOptions
+     */
+    public RangeOptions bucketTimestamp(BucketTimestamp bucketTimestamp) {
+        this.bucketTimestamp = bucketTimestamp;
+        return this;
+    }
+
+    /**
+     * Also report aggregation buckets that have no samples
+     *
+     * @return RangeOptions
+     */
+    public RangeOptions empty() {
+        this.empty = true;
+        return this;
+    }
+
+    /**
+     * @return a copy of these options that returns at most count samples
+     */
+    RangeOptions withCount(int count) {
+        RangeOptions copy = new RangeOptions();
+        copy.count = count;
+        copy.aggregationType = aggregationType;
+        copy.aggregationAlign = aggregationAlign;
+        copy.timeBucket = timeBucket;
+        copy.withLabels = withLabels;
+        copy.latest = latest;
+        copy.filterByTimestamps = filterByTimestamps;
+        copy.filterMinValue = filterMinValue;
+        copy.filterMaxValue = filterMaxValue;
+        copy.bucketTimestamp = bucketTimestamp;
+        copy.empty = empty;
+        copy.alignTimestamp = alignTimestamp;
+        return copy;
+    }
+
+    /**
+     * Pin the bucket alignment to a timestamp, so it stays put when a pager moves the query bounds.
+     */
+    void alignTimestamp(long timestamp) {
+        this.alignTimestamp = timestamp;
+    }
+
+    Align getAggregationAlign() {
+        return aggregationAlign;
+    }
+
+    BucketTimestamp getBucketTimestamp() {
+        return bucketTimestamp;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    Aggregation getAggregationType() {
+        return aggregationType;
+    }
+
+    long getTimeBucket() {
+        return timeBucket;
+    }
+
     public void build(List<Object> args) {
+        if (latest) {
+            args.add(Keywords.LATEST);
+        }
+        if (filterByTimestamps != null && filterByTimestamps.length > 0) {
+            args.add(Keywords.FILTER_BY_TS);
+            for (long timestamp : filterByTimestamps) {
+                args.add(timestamp);
+            }
+        }
+        if (filterMinValue != null && filterMaxValue != null) {
+            args.add(Keywords.FILTER_BY_VALUE);
+            args.add(filterMinValue);
+            args.add(filterMaxValue);
+        }
         if (count > 0) {
             args.add(Keywords.COUNT);
             args.add(count);
@@ -63,10 +186,20 @@ public class RangeOptions {
             args.add(Keywords.AGGREGATION);
             args.add(aggregationType.getKey());
             args.add(timeBucket);
-            if (aggregationAlign != null) {
+            if (alignTimestamp != null) {
+                args.add(Keywords.ALIGN);
+                args.add(alignTimestamp);
+            } else if (aggregationAlign != null) {
                 args.add(Keywords.ALIGN);
                 args.add(aggregationAlign.getKey());
             }
+            if (bucketTimestamp != null) {
+                args.add(Keywords.BUCKETTIMESTAMP);
+                args.add(bucketTimestamp.getKey());
+            }
+            if (empty) {
+                args.add(Keywords.EMPTY);
+            }
         }
         if (withLabels) {
             args.add(Keywords.WITHLABELS);
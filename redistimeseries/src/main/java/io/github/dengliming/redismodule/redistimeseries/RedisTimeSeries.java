@@ -17,15 +17,25 @@
 package io.github.dengliming.redismodule.redistimeseries;
 
 import io.github.dengliming.redismodule.common.util.RAssert;
+import io.github.dengliming.redismodule.common.util.SlotUtil;
 import io.github.dengliming.redismodule.redistimeseries.protocol.Keywords;
 import org.redisson.api.RFuture;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
 import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.dengliming.redismodule.redistimeseries.Sample.Value;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_ADD;
@@ -33,6 +43,7 @@ import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCom
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_CREATE;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_CREATERULE;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_DECRBY;
+import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_DEL;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_DELETERULE;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_GET;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_INCRBY;
@@ -40,9 +51,14 @@ import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCom
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_MADD;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_MGET;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_MRANGE;
+import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_MRANGE_BLOCK;
+import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_MREVRANGE;
+import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_MREVRANGE_BLOCK;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_QUERYINDEX;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_RANGE;
+import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_RANGE_BLOCK;
 import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_REVRANGE;
+import static io.github.dengliming.redismodule.redistimeseries.protocol.RedisCommands.TS_REVRANGE_BLOCK;
 
 /**
  * @author dengliming
@@ -86,9 +102,9 @@ public class RedisTimeSeries {
         args.add(key);
         options.build(args);
         if (create) {
-            return commandExecutor.writeAsync(getName(), codec, TS_CREATE, args.toArray());
+            return commandExecutor.writeAsync(key, codec, TS_CREATE, args.toArray());
         }
-        return commandExecutor.writeAsync(getName(), codec, TS_ALTER, args.toArray());
+        return commandExecutor.writeAsync(key, codec, TS_ALTER, args.toArray());
     }
 
     /**
@@ -112,11 +128,14 @@ public class RedisTimeSeries {
         if (options != null) {
             options.isAdd(true).build(args);
         }
-        return commandExecutor.writeAsync(getName(), codec, TS_ADD, args.toArray());
+        return commandExecutor.writeAsync(sample.getKey(), codec, TS_ADD, args.toArray());
     }
 
     /**
      * Append new samples to a list of series.
+     * <p>
+     * In cluster mode the samples are grouped by hash slot and one TS.MADD is sent per slot in parallel,
+     * the returned timestamps keep the order of the given samples.
      *
      * @param samples
      * @return
@@ -127,13 +146,42 @@ public class RedisTimeSeries {
 
     public RFuture<List<Long>> addAsync(Sample... samples) {
         RAssert.notEmpty(samples, "samples must not be empty");
-        List<Object> args = new ArrayList<>(samples.length * 3);
+
+        List<String> keys = new ArrayList<>(samples.length);
         for (Sample sample : samples) {
+            keys.add(sample.getKey());
+        }
+        Map<Integer, List<Integer>> slots = SlotUtil.groupBySlot(commandExecutor, keys);
+        if (slots.size() == 1) {
+            return commandExecutor.writeAsync(samples[0].getKey(), codec, TS_MADD, buildMaddArgs(samples, null).toArray());
+        }
+
+        Object[] timestamps = new Object[samples.length];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(slots.size());
+        for (List<Integer> positions : slots.values()) {
+            RFuture<List<Object>> future = commandExecutor.writeAsync(samples[positions.get(0)].getKey(), codec, TS_MADD,
+                    buildMaddArgs(samples, positions).toArray());
+            futures.add(future.toCompletableFuture().thenAccept(res -> {
+                for (int i = 0; i < positions.size(); i++) {
+                    timestamps[positions.get(i)] = res.get(i);
+                }
+            }));
+        }
+        CompletableFuture<List<Long>> result = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> (List<Long>) (List<?>) Arrays.asList(timestamps));
+        return new CompletableFutureWrapper<>(result);
+    }
+
+    private List<Object> buildMaddArgs(Sample[] samples, List<Integer> positions) {
+        int size = positions == null ? samples.length : positions.size();
+        List<Object> args = new ArrayList<>(size * 3);
+        for (int i = 0; i < size; i++) {
+            Sample sample = samples[positions == null ? i : positions.get(i)];
             args.add(sample.getKey());
             args.add(sample.getValue().getTimestamp() > 0 ? sample.getValue().getTimestamp() : "*");
             args.add(sample.getValue().getValue());
         }
-        return commandExecutor.writeAsync(getName(), codec, TS_MADD, args.toArray());
+        return args;
     }
 
     /**
@@ -158,7 +206,7 @@ public class RedisTimeSeries {
     public RFuture<Long> incrByAsync(String key, double value, long timestamp, TimeSeriesOptions options) {
         RAssert.notNull(key, "key must not be empty");
 
-        return commandExecutor.writeAsync(getName(), codec, TS_INCRBY, buildCounterArgs(key, value, timestamp, options).toArray());
+        return commandExecutor.writeAsync(key, codec, TS_INCRBY, buildCounterArgs(key, value, timestamp, options).toArray());
     }
 
     /**
@@ -183,10 +231,17 @@ public class RedisTimeSeries {
     public RFuture<Long> decrByAsync(String key, double value, long timestamp, TimeSeriesOptions options) {
         RAssert.notNull(key, "key must not be null");
 
-        return commandExecutor.writeAsync(getName(), codec, TS_DECRBY, buildCounterArgs(key, value, timestamp, options).toArray());
+        return commandExecutor.writeAsync(key, codec, TS_DECRBY, buildCounterArgs(key, value, timestamp, options).toArray());
+    }
+
+    /**
+     * TS.INCRBY with a preformatted value, so increments beyond the precision of a double are sent as they are.
+     */
+    RFuture<Long> incrByAsync(String key, String value, TimeSeriesOptions options) {
+        return commandExecutor.writeAsync(key, codec, TS_INCRBY, buildCounterArgs(key, value, 0L, options).toArray());
     }
 
-    private List<Object> buildCounterArgs(String key, double value, long timestamp, TimeSeriesOptions options) {
+    private List<Object> buildCounterArgs(String key, Object value, long timestamp, TimeSeriesOptions options) {
         List<Object> args = new ArrayList<>();
         args.add(key);
         args.add(value);
@@ -216,7 +271,7 @@ public class RedisTimeSeries {
         RAssert.notNull(destKey, "destKey must not be null");
         RAssert.notNull(aggregationType, "aggregationType must not be null");
 
-        return commandExecutor.writeAsync(getName(), codec, TS_CREATERULE, sourceKey, destKey, Keywords.AGGREGATION, aggregationType.getKey(), timeBucket);
+        return commandExecutor.writeAsync(sourceKey, codec, TS_CREATERULE, sourceKey, destKey, Keywords.AGGREGATION, aggregationType.getKey(), timeBucket);
     }
 
     /**
@@ -234,7 +289,25 @@ public class RedisTimeSeries {
         RAssert.notNull(sourceKey, "sourceKey must not be null");
         RAssert.notNull(destKey, "destKey must not be null");
 
-        return commandExecutor.writeAsync(getName(), codec, TS_DELETERULE, sourceKey, destKey);
+        return commandExecutor.writeAsync(sourceKey, codec, TS_DELETERULE, sourceKey, destKey);
+    }
+
+    /**
+     * Delete all samples between two timestamps, inclusive.
+     *
+     * @param key
+     * @param from
+     * @param to
+     * @return the number of samples deleted
+     */
+    public Long del(String key, long from, long to) {
+        return commandExecutor.get(delAsync(key, from, to));
+    }
+
+    public RFuture<Long> delAsync(String key, long from, long to) {
+        RAssert.notNull(key, "key must not be null");
+
+        return commandExecutor.writeAsync(key, codec, TS_DEL, key, from, to);
     }
 
     /**
@@ -254,14 +327,24 @@ public class RedisTimeSeries {
     }
 
     public RFuture<List<Value>> rangeAsync(String key, long from, long to, RangeOptions rangeOptions) {
-        List<Object> args = new ArrayList<>();
-        args.add(key);
-        args.add(from);
-        args.add(to);
-        if (rangeOptions != null) {
-            rangeOptions.build(args);
-        }
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_RANGE, args.toArray());
+        return commandExecutor.readAsync(key, StringCodec.INSTANCE, TS_RANGE, buildRangeArgs(key, from, to, rangeOptions).toArray());
+    }
+
+    /**
+     * Query a range, keeping the samples column-wise in a {@link SampleBlock}.
+     *
+     * @param key
+     * @param from
+     * @param to
+     * @param rangeOptions
+     * @return
+     */
+    public SampleBlock rangeBlock(String key, long from, long to, RangeOptions rangeOptions) {
+        return commandExecutor.get(rangeBlockAsync(key, from, to, rangeOptions));
+    }
+
+    public RFuture<SampleBlock> rangeBlockAsync(String key, long from, long to, RangeOptions rangeOptions) {
+        return commandExecutor.readAsync(key, StringCodec.INSTANCE, TS_RANGE_BLOCK, buildRangeArgs(key, from, to, rangeOptions).toArray());
     }
 
     /**
@@ -281,6 +364,73 @@ public class RedisTimeSeries {
     }
 
     public RFuture<List<Value>> revRangeAsync(String key, long from, long to, RangeOptions rangeOptions) {
+        return commandExecutor.readAsync(key, StringCodec.INSTANCE, TS_REVRANGE, buildRangeArgs(key, from, to, rangeOptions).toArray());
+    }
+
+    /**
+     * Query a range in reverse direction, keeping the samples column-wise in a {@link SampleBlock}.
+     *
+     * @param key
+     * @param from
+     * @param to
+     * @param rangeOptions
+     * @return
+     */
+    public SampleBlock revRangeBlock(String key, long from, long to, RangeOptions rangeOptions) {
+        return commandExecutor.get(revRangeBlockAsync(key, from, to, rangeOptions));
+    }
+
+    public RFuture<SampleBlock> revRangeBlockAsync(String key, long from, long to, RangeOptions rangeOptions) {
+        return commandExecutor.readAsync(key, StringCodec.INSTANCE, TS_REVRANGE_BLOCK, buildRangeArgs(key, from, to, rangeOptions).toArray());
+    }
+
+    /**
+     * Iterate over a range page by page, each page holding at most pageSize samples.
+     *
+     * @param key
+     * @param from
+     * @param to
+     * @param rangeOptions Optional args, its COUNT is replaced by pageSize
+     * @param pageSize
+     * @param prefetch request the next page while the current one is processed
+     * @return
+     */
+    public Iterator<SampleBlock> rangeIterator(String key, long from, long to, RangeOptions rangeOptions, int pageSize, boolean prefetch) {
+        return new RangeIterator(commandExecutor, this, key, from, to, rangeOptions, pageSize, false, prefetch);
+    }
+
+    /**
+     * Iterate over a range in reverse direction page by page, each page holding at most pageSize samples.
+     *
+     * @param key
+     * @param from
+     * @param to
+     * @param rangeOptions Optional args, its COUNT is replaced by pageSize
+     * @param pageSize
+     * @param prefetch request the next page while the current one is processed
+     * @return
+     */
+    public Iterator<SampleBlock> revRangeIterator(String key, long from, long to, RangeOptions rangeOptions, int pageSize, boolean prefetch) {
+        return new RangeIterator(commandExecutor, this, key, from, to, rangeOptions, pageSize, true, prefetch);
+    }
+
+    /**
+     * Lazily stream the samples of a range, fetching pageSize samples at a time with prefetch.
+     *
+     * @param key
+     * @param from
+     * @param to
+     * @param rangeOptions Optional args, its COUNT is replaced by pageSize
+     * @param pageSize
+     * @return
+     */
+    public Stream<Value> rangeStream(String key, long from, long to, RangeOptions rangeOptions, int pageSize) {
+        Iterator<SampleBlock> iterator = rangeIterator(key, from, to, rangeOptions, pageSize, true);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(block -> block.asValues().stream());
+    }
+
+    private List<Object> buildRangeArgs(String key, long from, long to, RangeOptions rangeOptions) {
         List<Object> args = new ArrayList<>();
         args.add(key);
         args.add(from);
@@ -288,11 +438,12 @@ public class RedisTimeSeries {
         if (rangeOptions != null) {
             rangeOptions.build(args);
         }
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_REVRANGE, args.toArray());
+        return args;
     }
 
     /**
      * Query a timestamp range across multiple time-series by filters.
+     * In cluster mode the query runs on every master and the results are concatenated.
      *
      * @param from
      * @param to
@@ -317,11 +468,13 @@ public class RedisTimeSeries {
         for (String filter : filters) {
             args.add(filter);
         }
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_MRANGE, args.toArray());
+        return readAllAsync(TS_MRANGE, args.toArray());
     }
 
     /**
      * Query a timestamp range across multiple time-series by filters.
+     * In cluster mode the query runs concurrently on every master, groups with the same key are reduced again
+     * on the client when the reducer is decomposable (SUM, MIN, MAX, COUNT).
      *
      * @param from fromTimestamp
      * @param to to timestamp
@@ -335,6 +488,87 @@ public class RedisTimeSeries {
     }
 
     public RFuture<List<TimeSeries>> mrangeAsync(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
+        RFuture<List<TimeSeries>> result = readAllAsync(TS_MRANGE, buildMrangeArgs(from, to, rangeOptions, groupBy, filters).toArray());
+        return mergeGroupsAsync(result, rangeOptions, groupBy, false);
+    }
+
+    /**
+     * Query a timestamp range across multiple time-series by filters, keeping the samples of each series
+     * column-wise in {@link TimeSeries#getSampleBlock()}.
+     *
+     * @param from fromTimestamp
+     * @param to to timestamp
+     * @param rangeOptions Optional args
+     * @param groupBy Optional group by args
+     * @param filters list of filters
+     * @return List of TimeSeries
+     */
+    public List<TimeSeries> mrangeBlock(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
+        return commandExecutor.get(mrangeBlockAsync(from, to, rangeOptions, groupBy, filters));
+    }
+
+    public RFuture<List<TimeSeries>> mrangeBlockAsync(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
+        RFuture<List<TimeSeries>> result = readAllAsync(TS_MRANGE_BLOCK, buildMrangeArgs(from, to, rangeOptions, groupBy, filters).toArray());
+        return mergeGroupsAsync(result, rangeOptions, groupBy, false);
+    }
+
+    /**
+     * Query a timestamp range in reverse direction across multiple time-series by filters.
+     * In cluster mode the query runs concurrently on every master, groups with the same key are reduced again
+     * on the client when the reducer is decomposable (SUM, MIN, MAX, COUNT).
+     *
+     * @param from fromTimestamp
+     * @param to to timestamp
+     * @param rangeOptions Optional args
+     * @param groupBy Optional group by args
+     * @param filters list of filters
+     * @return List of TimeSeries
+     */
+    public List<TimeSeries> mrevrange(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
+        return commandExecutor.get(mrevrangeAsync(from, to, rangeOptions, groupBy, filters));
+    }
+
+    public RFuture<List<TimeSeries>> mrevrangeAsync(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
+        RFuture<List<TimeSeries>> result = readAllAsync(TS_MREVRANGE, buildMrangeArgs(from, to, rangeOptions, groupBy, filters).toArray());
+        return mergeGroupsAsync(result, rangeOptions, groupBy, true);
+    }
+
+    /**
+     * Query a timestamp range in reverse direction across multiple time-series by filters, keeping the samples
+     * of each series column-wise in {@link TimeSeries#getSampleBlock()}.
+     *
+     * @param from fromTimestamp
+     * @param to to timestamp
+     * @param rangeOptions Optional args
+     * @param groupBy Optional group by args
+     * @param filters list of filters
+     * @return List of TimeSeries
+     */
+    public List<TimeSeries> mrevrangeBlock(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
+        return commandExecutor.get(mrevrangeBlockAsync(from, to, rangeOptions, groupBy, filters));
+    }
+
+    public RFuture<List<TimeSeries>> mrevrangeBlockAsync(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
+        RFuture<List<TimeSeries>> result = readAllAsync(TS_MREVRANGE_BLOCK, buildMrangeArgs(from, to, rangeOptions, groupBy, filters).toArray());
+        return mergeGroupsAsync(result, rangeOptions, groupBy, true);
+    }
+
+    /**
+     * In cluster mode every master returns its own groups, those with the same key are reduced again
+     * when the reducer is decomposable (SUM, MIN, MAX, COUNT) and left as they are otherwise.
+     */
+    private RFuture<List<TimeSeries>> mergeGroupsAsync(RFuture<List<TimeSeries>> future, RangeOptions rangeOptions,
+                                                       GroupByOptions groupBy, boolean reverse) {
+        if (groupBy == null || groupBy.getReducer() == null) {
+            return future;
+        }
+        Reducer reducer = groupBy.getReducer();
+        int count = rangeOptions == null ? 0 : rangeOptions.getCount();
+        return new CompletableFutureWrapper<>(future.toCompletableFuture()
+                .thenApply(groups -> GroupMerger.merge(groups, reducer, reverse, count)));
+    }
+
+    private List<Object> buildMrangeArgs(long from, long to, RangeOptions rangeOptions, GroupByOptions groupBy, String... filters) {
         RAssert.notEmpty(filters, "filters must not be empty");
 
         List<Object> args = new ArrayList<>();
@@ -351,8 +585,7 @@ public class RedisTimeSeries {
         if (groupBy != null) {
             groupBy.build(args);
         }
-
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_MRANGE, args.toArray());
+        return args;
     }
 
     /**
@@ -366,11 +599,12 @@ public class RedisTimeSeries {
     }
 
     public RFuture<Value> getAsync(String key) {
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_GET, key);
+        return commandExecutor.readAsync(key, StringCodec.INSTANCE, TS_GET, key);
     }
 
     /**
      * Get the last samples matching the specific filter.
+     * In cluster mode the query runs on every master and the results are concatenated.
      *
      * @param withLabels
      * @param filters
@@ -390,7 +624,7 @@ public class RedisTimeSeries {
             args.add(filter);
         }
 
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_MGET, args.toArray());
+        return readAllAsync(TS_MGET, args.toArray());
     }
 
     /**
@@ -404,11 +638,12 @@ public class RedisTimeSeries {
     }
 
     public RFuture<Map<String, Object>> infoAsync(String key) {
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_INFO, key);
+        return commandExecutor.readAsync(key, StringCodec.INSTANCE, TS_INFO, key);
     }
 
     /**
      * Get all the keys matching the filter list.
+     * In cluster mode the query runs on every master and the results are concatenated.
      *
      * @param filters
      * @return
@@ -420,10 +655,39 @@ public class RedisTimeSeries {
     public RFuture<List<String>> queryIndexAsync(String... filters) {
         RAssert.notEmpty(filters, "filters must not be empty");
 
-        return commandExecutor.readAsync(getName(), StringCodec.INSTANCE, TS_QUERYINDEX, filters);
+        return readAllAsync(TS_QUERYINDEX, (Object[]) filters);
     }
 
+    /**
+     * @deprecated commands are routed by their own keys, this object has no name.
+     * @return always null
+     */
+    @Deprecated
     public String getName() {
         return null;
     }
+
+    /**
+     * Execute a multi-key read command on every master and concatenate the per-node results.
+     *
+     * @param command
+     * @param args
+     * @param <T>
+     * @return
+     */
+    private <T> RFuture<List<T>> readAllAsync(RedisCommand<?> command, Object... args) {
+        List<CompletableFuture<List<T>>> futures = commandExecutor.readAllAsync(StringCodec.INSTANCE, command, args);
+        CompletableFuture<List<T>> result = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    List<T> merged = new ArrayList<>();
+                    for (CompletableFuture<List<T>> future : futures) {
+                        List<T> part = future.join();
+                        if (part != null) {
+                            merged.addAll(part);
+                        }
+                    }
+                    return merged;
+                });
+        return new CompletableFutureWrapper<>(result);
+    }
 }
@@ -22,15 +22,26 @@ package io.github.dengliming.redismodule.redistimeseries;
  * @author xdev.developer
  */
 public enum Reducer {
-    SUM("sum"), MIN("min"), MAX("max");
+    SUM("sum", true), MIN("min", true), MAX("max", true), COUNT("count", true),
+    AVG("avg", false), RANGE("range", false),
+    STD_P("std.p", false), STD_S("std.s", false), VAR_P("var.p", false), VAR_S("var.s", false);
 
     private String key;
+    private boolean decomposable;
 
-    Reducer(String key) {
+    Reducer(String key, boolean decomposable) {
         this.key = key;
+        this.decomposable = decomposable;
     }
 
     public String getKey() {
         return key;
     }
+
+    /**
+     * @return whether partial results of this reducer can be reduced again, e.g. the groups returned by each cluster node
+     */
+    public boolean isDecomposable() {
+        return decomposable;
+    }
 }
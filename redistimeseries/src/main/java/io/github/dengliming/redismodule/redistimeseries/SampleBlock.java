@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.dengliming.redismodule.redistimeseries.Sample.Value;
+
+/**
+ * Samples of one series stored column-wise in a {@code long[]} of timestamps and a {@code double[]} of values,
+ * so a range reply costs two arrays instead of one {@link Value} per point.
+ *
+ * @author dengliming
+ */
+public class SampleBlock {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+
+    public SampleBlock() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SampleBlock(int initialCapacity) {
+        this.timestamps = new long[Math.max(initialCapacity, 1)];
+        this.values = new double[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(long timestamp, double value) {
+        if (size == timestamps.length) {
+            int capacity = size + (size >> 1) + 1;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        timestamps[size] = timestamp;
+        values[size] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    public double getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * @return a copy of the timestamps, trimmed to {@link #size()}
+     */
+    public long[] getTimestamps() {
+        return Arrays.copyOf(timestamps, size);
+    }
+
+    /**
+     * @return a copy of the values, trimmed to {@link #size()}
+     */
+    public double[] getValues() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return a read-only view that creates {@link Value}s on access
+     */
+    public List<Value> asValues() {
+        return new AbstractList<Value>() {
+            @Override
+            public Value get(int index) {
+                return Value.of(getTimestamp(index), getValue(index));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class TimeSeries {
     private String key;
     private List<Label> labels;
     private List<Value> values;
+    private SampleBlock sampleBlock;
 
     public TimeSeries(String key) {
         this.key = key;
@@ -42,6 +43,11 @@ public class TimeSeries {
         return this;
     }
 
+    public TimeSeries sampleBlock(SampleBlock sampleBlock) {
+        this.sampleBlock = sampleBlock;
+        return this;
+    }
+
     public String getKey() {
         return key;
     }
@@ -51,6 +57,16 @@ public class TimeSeries {
     }
 
     public List<Value> getValues() {
+        if (values == null && sampleBlock != null) {
+            return sampleBlock.asValues();
+        }
         return values;
     }
+
+    /**
+     * @return the samples when the series was decoded column-wise, otherwise null
+     */
+    public SampleBlock getSampleBlock() {
+        return sampleBlock;
+    }
 }
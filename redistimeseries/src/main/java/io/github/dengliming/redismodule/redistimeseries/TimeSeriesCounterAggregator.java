@@ -0,0 +1,363 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import org.redisson.api.RFuture;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates counter increments locally and sends one pipelined TS.INCRBY per key every
+ * {@link TimeSeriesCounterAggregatorOptions#getFlushIntervalMillis()}.
+ * <p>
+ * Integral increments go to a striped {@link LongAdder} and floating point ones to a separate total, a flush
+ * subtracts exactly what it read from both, so increments racing with a flush are sent by the next one and nothing
+ * is lost to rounding. Increments of commands that never reached the server are added back and sent again, all other
+ * failures are reported to the error handler. Keys without increments for
+ * {@link TimeSeriesCounterAggregatorOptions#getMaxIdleFlushes()} flushes are forgotten.
+ *
+ * @author dengliming
+ */
+public class TimeSeriesCounterAggregator implements Closeable {
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final TimeSeriesCounterAggregatorOptions options;
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Queue<CompletableFuture<Void>> inFlight = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushedKeys = new LongAdder();
+    private final LongAdder failedKeys = new LongAdder();
+
+    public TimeSeriesCounterAggregator(CommandAsyncExecutor commandExecutor, TimeSeriesCounterAggregatorOptions options) {
+        RAssert.notNull(commandExecutor, "commandExecutor must not be null");
+        RAssert.notNull(options, "TimeSeriesCounterAggregatorOptions must not be null");
+
+        this.commandExecutor = commandExecutor;
+        this.options = options;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-timeseries-counter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushCounters, options.getFlushIntervalMillis(),
+                options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void increment(String key) {
+        incrBy(key, 1L);
+    }
+
+    public void incrBy(String key, long value) {
+        checkOpen(key);
+        add(key, value, 0d);
+    }
+
+    public void incrBy(String key, double value) {
+        checkOpen(key);
+        add(key, 0L, value);
+    }
+
+    /**
+     * @param key
+     * @return the increments of the key not flushed yet
+     */
+    public double getPending(String key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.longs.sum() + Double.longBitsToDouble(counter.doubleBits.get());
+    }
+
+    /**
+     * @return number of keys currently tracked
+     */
+    public int getTrackedKeys() {
+        return counters.size();
+    }
+
+    /**
+     * Send the increments accumulated so far.
+     *
+     * @return completes once the sent increments are acknowledged
+     */
+    public RFuture<Void> flushAsync() {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        flusher.execute(() -> {
+            flushCounters();
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .whenComplete((r, e) -> result.complete(null));
+        });
+        return new CompletableFutureWrapper<>(result);
+    }
+
+    public void flush() {
+        commandExecutor.get(flushAsync());
+    }
+
+    /**
+     * Stop accepting increments, flush them and wait for all in-flight writes. Increments that could not be sent
+     * are reported to the error handler instead of being added back.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            flusher.shutdown();
+            // added back by flushes that completed after the final drain
+            reportUnsent();
+        }
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    /**
+     * @return number of TS.INCRBY commands acknowledged
+     */
+    public long getFlushedKeys() {
+        return flushedKeys.sum();
+    }
+
+    public long getFailedKeys() {
+        return failedKeys.sum();
+    }
+
+    private void checkOpen(String key) {
+        RAssert.notNull(key, "key must not be null");
+        if (closed.get()) {
+            throw new IllegalStateException("TimeSeriesCounterAggregator is closed");
+        }
+    }
+
+    private void add(String key, long longValue, double doubleValue) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new Counter());
+        }
+        counter.add(longValue, doubleValue);
+        if (counter.retired) {
+            // evicted meanwhile: either the flusher took the increment with its last drain, or it is still here
+            Increment rest = counter.drain();
+            if (rest != null) {
+                add(key, rest.longValue, rest.doubleValue);
+            }
+        }
+    }
+
+    private void flushCounters() {
+        Map<String, Increment> increments = new LinkedHashMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            Increment increment = counter.drain();
+            if (increment != null) {
+                counter.idleFlushes = 0;
+                increments.put(entry.getKey(), increment);
+            } else if (++counter.idleFlushes >= options.getMaxIdleFlushes()) {
+                counter.retired = true;
+                counters.remove(entry.getKey(), counter);
+                // increments that raced with the eviction and did not see it yet
+                increment = counter.drain();
+                if (increment != null) {
+                    increments.put(entry.getKey(), increment);
+                }
+            }
+        }
+        if (increments.isEmpty()) {
+            return;
+        }
+
+        RedisTimeSeriesBatch batch = new RedisTimeSeriesBatch(commandExecutor, options.getBatchOptions());
+        RedisTimeSeries redisTimeSeries = batch.getRedisTimeSeries();
+        List<RFuture<Long>> replies = new ArrayList<>(increments.size());
+        for (Map.Entry<String, Increment> entry : increments.entrySet()) {
+            replies.add(redisTimeSeries.incrByAsync(entry.getKey(), entry.getValue().toArgument(), options.getTimeSeriesOptions()));
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        inFlight.add(future);
+        batch.executeAsync().whenComplete((res, e) -> {
+            try {
+                onFlushed(increments, replies);
+            } finally {
+                inFlight.remove(future);
+                future.complete(null);
+            }
+        });
+    }
+
+    /**
+     * One failed command fails the whole batch although the others were applied, so each command is checked on
+     * its own. Only commands that provably never reached the server are sent again, a timed out TS.INCRBY may
+     * have been applied.
+     */
+    private void onFlushed(Map<String, Increment> increments, List<RFuture<Long>> replies) {
+        flushCount.increment();
+        Map<String, Double> failed = null;
+        Throwable cause = null;
+        int i = 0;
+        for (Map.Entry<String, Increment> entry : increments.entrySet()) {
+            CompletableFuture<Long> reply = replies.get(i++).toCompletableFuture();
+            if (!reply.isCompletedExceptionally()) {
+                flushedKeys.increment();
+                continue;
+            }
+
+            Throwable error = errorOf(reply);
+            if (error instanceof RedisConnectionException && !closed.get()) {
+                // never written to a connection, send the increment again with the next flush
+                Increment increment = entry.getValue();
+                add(entry.getKey(), increment.longValue, increment.doubleValue);
+                continue;
+            }
+            failedKeys.increment();
+            if (failed == null) {
+                failed = new LinkedHashMap<>();
+                cause = error;
+            }
+            failed.put(entry.getKey(), entry.getValue().sum());
+        }
+        if (failed != null && options.getErrorHandler() != null) {
+            options.getErrorHandler().accept(failed, cause);
+        }
+    }
+
+    private void reportUnsent() {
+        Map<String, Double> unsent = new LinkedHashMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Increment increment = entry.getValue().drain();
+            if (increment != null) {
+                unsent.put(entry.getKey(), increment.sum());
+            }
+        }
+        if (unsent.isEmpty()) {
+            return;
+        }
+        failedKeys.add(unsent.size());
+        if (options.getErrorHandler() != null) {
+            options.getErrorHandler().accept(unsent, new IllegalStateException("TimeSeriesCounterAggregator is closed"));
+        }
+    }
+
+    private static Throwable errorOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static final class Increment {
+
+        private final long longValue;
+        private final double doubleValue;
+
+        Increment(long longValue, double doubleValue) {
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+        }
+
+        double sum() {
+            return longValue + doubleValue;
+        }
+
+        /**
+         * Formats the increment without going through a double, which cannot hold longs above 2^53.
+         */
+        String toArgument() {
+            if (doubleValue == 0) {
+                return Long.toString(longValue);
+            }
+            if (longValue == 0) {
+                return Double.toString(doubleValue);
+            }
+            return BigDecimal.valueOf(longValue).add(BigDecimal.valueOf(doubleValue)).toPlainString();
+        }
+    }
+
+    private static final class Counter {
+
+        private static final long ZERO_BITS = Double.doubleToRawLongBits(0d);
+
+        private final LongAdder longs = new LongAdder();
+        // fractional increments are rare next to integral ones, a CAS on the bits keeps their drain exact
+        private final AtomicLong doubleBits = new AtomicLong(ZERO_BITS);
+        // set once by the flusher before the counter leaves the map, only read by writers
+        private volatile boolean retired;
+        // only touched by the flusher thread
+        private int idleFlushes;
+
+        void add(long longValue, double doubleValue) {
+            if (longValue != 0) {
+                longs.add(longValue);
+            }
+            if (doubleValue != 0) {
+                long current;
+                long next;
+                do {
+                    current = doubleBits.get();
+                    next = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + doubleValue);
+                } while (!doubleBits.compareAndSet(current, next));
+            }
+        }
+
+        /**
+         * Take the current totals, increments racing with the drain stay for the next one. Synchronized as
+         * subtracting the read sum is only exact without concurrent drains, which writers do on retired counters.
+         */
+        synchronized Increment drain() {
+            long longValue = longs.sum();
+            if (longValue != 0) {
+                longs.add(-longValue);
+            }
+            double doubleValue = Double.longBitsToDouble(doubleBits.getAndSet(ZERO_BITS));
+            if (longValue == 0 && doubleValue == 0) {
+                return null;
+            }
+            return new Increment(longValue, doubleValue);
+        }
+    }
+}
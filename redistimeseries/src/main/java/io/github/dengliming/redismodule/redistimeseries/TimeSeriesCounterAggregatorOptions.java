@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import org.redisson.api.BatchOptions;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Options of {@link TimeSeriesCounterAggregator}.
+ *
+ * @author dengliming
+ */
+public class TimeSeriesCounterAggregatorOptions {
+
+    private long flushIntervalMillis = 1000;
+    private TimeSeriesOptions timeSeriesOptions;
+    private BatchOptions batchOptions = BatchOptions.defaults();
+    private int maxIdleFlushes = 60;
+    private BiConsumer<Map<String, Double>, Throwable> errorHandler;
+
+    /**
+     * Send the accumulated increments this often.
+     *
+     * @param flushIntervalMillis
+     * @return
+     */
+    public TimeSeriesCounterAggregatorOptions flushIntervalMillis(long flushIntervalMillis) {
+        RAssert.isTrue(flushIntervalMillis > 0, "flushIntervalMillis must be positive");
+
+        this.flushIntervalMillis = flushIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Options used when TS.INCRBY creates a missing counter.
+     *
+     * @param timeSeriesOptions
+     * @return
+     */
+    public TimeSeriesCounterAggregatorOptions timeSeriesOptions(TimeSeriesOptions timeSeriesOptions) {
+        this.timeSeriesOptions = timeSeriesOptions;
+        return this;
+    }
+
+    public TimeSeriesCounterAggregatorOptions batchOptions(BatchOptions batchOptions) {
+        RAssert.notNull(batchOptions, "batchOptions must not be null");
+
+        this.batchOptions = batchOptions;
+        return this;
+    }
+
+    /**
+     * Forget a key after this many flushes without increments, so short-lived keys do not pile up.
+     *
+     * @param maxIdleFlushes
+     * @return
+     */
+    public TimeSeriesCounterAggregatorOptions maxIdleFlushes(int maxIdleFlushes) {
+        RAssert.isTrue(maxIdleFlushes > 0, "maxIdleFlushes must be positive");
+
+        this.maxIdleFlushes = maxIdleFlushes;
+        return this;
+    }
+
+    /**
+     * Called with the increments that are lost: rejected by the server, timed out (they may have been applied) or
+     * not sent by the final flush of close. Increments of commands that never reached the server are sent again
+     * by the next flush and not reported.
+     *
+     * @param errorHandler
+     * @return
+     */
+    public TimeSeriesCounterAggregatorOptions errorHandler(BiConsumer<Map<String, Double>, Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public TimeSeriesOptions getTimeSeriesOptions() {
+        return timeSeriesOptions;
+    }
+
+    public BatchOptions getBatchOptions() {
+        return batchOptions;
+    }
+
+    public int getMaxIdleFlushes() {
+        return maxIdleFlushes;
+    }
+
+    public BiConsumer<Map<String, Double>, Throwable> getErrorHandler() {
+        return errorHandler;
+    }
+}
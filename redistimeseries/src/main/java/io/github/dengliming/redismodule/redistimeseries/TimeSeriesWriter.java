@@ -0,0 +1,315 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RFuture;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Buffers samples and writes them with pipelined TS.MADD.
+ * <p>
+ * Buffered samples are flushed when {@link TimeSeriesWriterOptions#getBatchSize()} samples or
+ * {@link TimeSeriesWriterOptions#getBatchBytes()} bytes are reached, and at least every
+ * {@link TimeSeriesWriterOptions#getLingerMillis()}. Flushes are submitted from a single thread so samples of
+ * one series are sent in the order they were added. Samples count against
+ * {@link TimeSeriesWriterOptions#getBufferCapacity()} until their flush completes. Samples are either accepted
+ * before {@link #close()} and written by its final flush, or rejected.
+ *
+ * @author dengliming
+ */
+public class TimeSeriesWriter implements Closeable {
+
+    private static final int SAMPLE_OVERHEAD_BYTES = 48;
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final TimeSeriesWriterOptions options;
+    private final Queue<Sample> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedSamples = new AtomicInteger();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final Semaphore capacity;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // adds share the read lock, close takes the write lock so no sample is buffered after the final flush
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final Queue<CompletableFuture<Void>> inFlight = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushedSamples = new LongAdder();
+    private final LongAdder failedSamples = new LongAdder();
+    private final LongAdder totalFlushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final LongAdder flushErrors = new LongAdder();
+
+    public TimeSeriesWriter(CommandAsyncExecutor commandExecutor, TimeSeriesWriterOptions options) {
+        RAssert.notNull(commandExecutor, "commandExecutor must not be null");
+        RAssert.notNull(options, "TimeSeriesWriterOptions must not be null");
+
+        this.commandExecutor = commandExecutor;
+        this.options = options;
+        this.capacity = new Semaphore(options.getBufferCapacity());
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-timeseries-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::scheduledFlush, options.getLingerMillis(), options.getLingerMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer a sample, blocking while the buffer is full.
+     *
+     * @param sample
+     * @throws IllegalStateException if the writer is closed or no space is freed in time
+     */
+    public void add(Sample sample) {
+        RAssert.notNull(sample, "Sample must not be null");
+        if (closed.get()) {
+            throw new IllegalStateException("TimeSeriesWriter is closed");
+        }
+
+        try {
+            if (!capacity.tryAcquire(options.getBlockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out waiting for TimeSeriesWriter buffer space");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for TimeSeriesWriter buffer space", e);
+        }
+
+        closeLock.readLock().lock();
+        try {
+            if (closed.get()) {
+                capacity.release();
+                throw new IllegalStateException("TimeSeriesWriter is closed");
+            }
+            buffer.add(sample);
+            int samples = bufferedSamples.incrementAndGet();
+            long bytes = bufferedBytes.addAndGet(estimateSize(sample));
+            if ((samples >= options.getBatchSize() || bytes >= options.getBatchBytes()) && flushRequested.compareAndSet(false, true)) {
+                flusher.execute(this::scheduledFlush);
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    public void add(Sample... samples) {
+        RAssert.notEmpty(samples, "samples must not be empty");
+
+        for (Sample sample : samples) {
+            add(sample);
+        }
+    }
+
+    /**
+     * Flush everything buffered so far.
+     *
+     * @return completes once the flushed samples are acknowledged
+     */
+    public RFuture<Void> flushAsync() {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        flusher.execute(() -> {
+            flushBuffer();
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .whenComplete((r, e) -> result.complete(null));
+        });
+        return new CompletableFutureWrapper<>(result);
+    }
+
+    public void flush() {
+        commandExecutor.get(flushAsync());
+    }
+
+    /**
+     * Stop accepting samples, flush the buffer and wait for all in-flight writes.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            flush();
+        } finally {
+            flusher.shutdown();
+        }
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public long getFlushedSamples() {
+        return flushedSamples.sum();
+    }
+
+    public long getFailedSamples() {
+        return failedSamples.sum();
+    }
+
+    /**
+     * @return flushes which threw before their samples were sent
+     */
+    public long getFlushErrors() {
+        return flushErrors.sum();
+    }
+
+    public int getBufferedSamples() {
+        return bufferedSamples.get();
+    }
+
+    /**
+     * @return mean time between submitting a flush and its acknowledgement, in nanoseconds
+     */
+    public long getMeanFlushLatencyNanos() {
+        long count = flushCount.sum();
+        return count == 0 ? 0 : totalFlushNanos.sum() / count;
+    }
+
+    public long getMaxFlushLatencyNanos() {
+        return maxFlushNanos.get();
+    }
+
+    /**
+     * An exception escaping a scheduled task cancels its later runs and one escaping execute is lost, so report it.
+     */
+    private void scheduledFlush() {
+        try {
+            flushBuffer();
+        } catch (RuntimeException e) {
+            onFlushError(Collections.emptyList(), e);
+        }
+    }
+
+    private void flushBuffer() {
+        flushRequested.set(false);
+        while (bufferedSamples.get() > 0) {
+            List<Sample> samples = drain();
+            if (samples.isEmpty()) {
+                return;
+            }
+            try {
+                writeAsync(samples);
+            } catch (RuntimeException e) {
+                capacity.release(samples.size());
+                onFlushError(samples, e);
+            }
+        }
+    }
+
+    private void onFlushError(List<Sample> samples, Throwable e) {
+        flushErrors.increment();
+        failedSamples.add(samples.size());
+        if (options.getErrorHandler() != null) {
+            options.getErrorHandler().accept(samples, e);
+        }
+    }
+
+    private List<Sample> drain() {
+        int max = options.getBatchSize();
+        List<Sample> samples = new ArrayList<>(Math.min(max, bufferedSamples.get()));
+        long bytes = 0;
+        Sample sample;
+        while (samples.size() < max && (sample = buffer.poll()) != null) {
+            samples.add(sample);
+            bytes += estimateSize(sample);
+        }
+        bufferedSamples.addAndGet(-samples.size());
+        bufferedBytes.addAndGet(-bytes);
+        return samples;
+    }
+
+    private void writeAsync(List<Sample> samples) {
+        long start = System.nanoTime();
+        RedisTimeSeriesBatch batch = new RedisTimeSeriesBatch(commandExecutor, options.getBatchOptions());
+        RedisTimeSeries redisTimeSeries = batch.getRedisTimeSeries();
+        int step = options.getSamplesPerCommand();
+        for (int i = 0; i < samples.size(); i += step) {
+            List<Sample> chunk = samples.subList(i, Math.min(i + step, samples.size()));
+            redisTimeSeries.addAsync(chunk.toArray(new Sample[0]));
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        inFlight.add(future);
+        batch.executeAsync().whenComplete((res, e) -> {
+            try {
+                onFlushed(samples, res, e, System.nanoTime() - start);
+            } finally {
+                capacity.release(samples.size());
+                inFlight.remove(future);
+                future.complete(null);
+            }
+        });
+    }
+
+    private void onFlushed(List<Sample> samples, BatchResult<?> result, Throwable e, long latency) {
+        flushCount.increment();
+        totalFlushNanos.add(latency);
+        maxFlushNanos.accumulateAndGet(latency, Math::max);
+        if (e != null) {
+            failedSamples.add(samples.size());
+            if (options.getErrorHandler() != null) {
+                options.getErrorHandler().accept(samples, e);
+            }
+            return;
+        }
+
+        int failed = 0;
+        for (Object reply : result.getResponses()) {
+            if (reply instanceof List) {
+                for (Object timestamp : (List<?>) reply) {
+                    if (timestamp instanceof Throwable) {
+                        failed++;
+                    }
+                }
+            }
+        }
+        failedSamples.add(failed);
+        flushedSamples.add(samples.size() - failed);
+    }
+
+    private static long estimateSize(Sample sample) {
+        return sample.getKey().length() + SAMPLE_OVERHEAD_BYTES;
+    }
+}
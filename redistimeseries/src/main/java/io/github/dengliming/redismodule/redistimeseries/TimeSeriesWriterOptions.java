@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import io.github.dengliming.redismodule.common.util.RAssert;
+import org.redisson.api.BatchOptions;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Options of {@link TimeSeriesWriter}.
+ *
+ * @author dengliming
+ */
+public class TimeSeriesWriterOptions {
+
+    private int batchSize = 1000;
+    private long batchBytes = 1024 * 1024;
+    private long lingerMillis = 100;
+    private int samplesPerCommand = 500;
+    private int bufferCapacity = 100000;
+    private long blockTimeoutMillis = 10000;
+    private BatchOptions batchOptions = BatchOptions.defaults();
+    private BiConsumer<List<Sample>, Throwable> errorHandler;
+
+    /**
+     * Flush once this many samples are buffered.
+     *
+     * @param batchSize
+     * @return
+     */
+    public TimeSeriesWriterOptions batchSize(int batchSize) {
+        RAssert.isTrue(batchSize > 0, "batchSize must be positive");
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Flush once the buffered samples are estimated to take this many bytes on the wire.
+     *
+     * @param batchBytes
+     * @return
+     */
+    public TimeSeriesWriterOptions batchBytes(long batchBytes) {
+        RAssert.isTrue(batchBytes > 0, "batchBytes must be positive");
+
+        this.batchBytes = batchBytes;
+        return this;
+    }
+
+    /**
+     * Flush buffered samples at least this often.
+     *
+     * @param lingerMillis
+     * @return
+     */
+    public TimeSeriesWriterOptions lingerMillis(long lingerMillis) {
+        RAssert.isTrue(lingerMillis > 0, "lingerMillis must be positive");
+
+        this.lingerMillis = lingerMillis;
+        return this;
+    }
+
+    /**
+     * Maximum number of samples sent in one TS.MADD of a flush pipeline.
+     *
+     * @param samplesPerCommand
+     * @return
+     */
+    public TimeSeriesWriterOptions samplesPerCommand(int samplesPerCommand) {
+        RAssert.isTrue(samplesPerCommand > 0, "samplesPerCommand must be positive");
+
+        this.samplesPerCommand = samplesPerCommand;
+        return this;
+    }
+
+    /**
+     * Maximum number of samples buffered or in flight, writers block when it is reached.
+     *
+     * @param bufferCapacity
+     * @param blockTimeoutMillis how long a writer waits for space before failing
+     * @return
+     */
+    public TimeSeriesWriterOptions bufferCapacity(int bufferCapacity, long blockTimeoutMillis) {
+        RAssert.isTrue(bufferCapacity > 0, "bufferCapacity must be positive");
+        RAssert.isTrue(blockTimeoutMillis >= 0, "blockTimeoutMillis must not be negative");
+
+        this.bufferCapacity = bufferCapacity;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        return this;
+    }
+
+    public TimeSeriesWriterOptions batchOptions(BatchOptions batchOptions) {
+        RAssert.notNull(batchOptions, "batchOptions must not be null");
+
+        this.batchOptions = batchOptions;
+        return this;
+    }
+
+    /**
+     * Called with the samples of a failed flush.
+     *
+     * @param errorHandler
+     * @return
+     */
+    public TimeSeriesWriterOptions errorHandler(BiConsumer<List<Sample>, Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getBatchBytes() {
+        return batchBytes;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public int getSamplesPerCommand() {
+        return samplesPerCommand;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    public BatchOptions getBatchOptions() {
+        return batchOptions;
+    }
+
+    public BiConsumer<List<Sample>, Throwable> getErrorHandler() {
+        return errorHandler;
+    }
+}
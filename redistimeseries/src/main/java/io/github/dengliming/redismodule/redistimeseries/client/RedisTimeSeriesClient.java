@@ -18,6 +18,13 @@ package io.github.dengliming.redismodule.redistimeseries.client;
 
 import io.github.dengliming.redismodule.common.BaseRedissonClient;
 import io.github.dengliming.redismodule.redistimeseries.RedisTimeSeries;
+import io.github.dengliming.redismodule.redistimeseries.RedisTimeSeriesBatch;
+import io.github.dengliming.redismodule.redistimeseries.TimeSeriesCounterAggregator;
+import io.github.dengliming.redismodule.redistimeseries.TimeSeriesCounterAggregatorOptions;
+import io.github.dengliming.redismodule.redistimeseries.TimeSeriesWriter;
+import io.github.dengliming.redismodule.redistimeseries.TimeSeriesWriterOptions;
+import org.redisson.Redisson;
+import org.redisson.api.BatchOptions;
 import org.redisson.config.Config;
 
 /**
@@ -29,7 +36,27 @@ public class RedisTimeSeriesClient extends BaseRedissonClient {
         super(config);
     }
 
+    public RedisTimeSeriesClient(Redisson redisson) {
+        super(redisson);
+    }
+
     public RedisTimeSeries getRedisTimeSeries() {
         return new RedisTimeSeries(getCommandExecutor());
     }
+
+    public RedisTimeSeriesBatch createRedisTimeSeriesBatch() {
+        return this.createRedisTimeSeriesBatch(BatchOptions.defaults());
+    }
+
+    public RedisTimeSeriesBatch createRedisTimeSeriesBatch(BatchOptions options) {
+        return new RedisTimeSeriesBatch(getCommandExecutor(), options);
+    }
+
+    public TimeSeriesWriter createTimeSeriesWriter(TimeSeriesWriterOptions options) {
+        return new TimeSeriesWriter(getCommandExecutor(), options);
+    }
+
+    public TimeSeriesCounterAggregator createTimeSeriesCounterAggregator(TimeSeriesCounterAggregatorOptions options) {
+        return new TimeSeriesCounterAggregator(getCommandExecutor(), options);
+    }
 }
@@ -21,6 +21,7 @@ package io.github.dengliming.redismodule.redistimeseries.protocol;
  */
 public enum Keywords {
 
-    RETENTION, UNCOMPRESSED, LABELS, TIMESTAMP, AGGREGATION, COUNT, WITHLABELS, FILTER, DUPLICATE_POLICY, ON_DUPLICATE, ALIGN, GROUPBY, REDUCE;
+    RETENTION, UNCOMPRESSED, LABELS, TIMESTAMP, AGGREGATION, COUNT, WITHLABELS, FILTER, DUPLICATE_POLICY, ON_DUPLICATE, ALIGN, GROUPBY, REDUCE,
+    LATEST, FILTER_BY_TS, FILTER_BY_VALUE, BUCKETTIMESTAMP, EMPTY;
 
 }
@@ -16,6 +16,8 @@
 
 package io.github.dengliming.redismodule.redistimeseries.protocol;
 
+import io.github.dengliming.redismodule.redistimeseries.protocol.decoder.SampleBlockDecoder;
+import io.github.dengliming.redismodule.redistimeseries.protocol.decoder.TimeSeriesBlockDecoder;
 import io.github.dengliming.redismodule.redistimeseries.protocol.decoder.TimeSeriesDecoder;
 import io.github.dengliming.redismodule.redistimeseries.protocol.decoder.ValueDecoder;
 import org.redisson.client.protocol.RedisCommand;
@@ -47,4 +49,10 @@ public interface RedisCommands {
     RedisCommand TS_INFO = new RedisCommand<>("TS.INFO", new ListMultiDecoder2(new ObjectMapReplayDecoder(), new ObjectListReplayDecoder<>(), new ObjectListReplayDecoder<>()));
     RedisCommand TS_QUERYINDEX = new RedisCommand<>("TS.QUERYINDEX", new StringListReplayDecoder());
     RedisCommand TS_REVRANGE = new RedisCommand<>("TS.REVRANGE", new ListMultiDecoder2(new ObjectListReplayDecoder<>(), new ValueDecoder()));
+    RedisCommand TS_RANGE_BLOCK = new RedisCommand<>("TS.RANGE", new SampleBlockDecoder());
+    RedisCommand TS_REVRANGE_BLOCK = new RedisCommand<>("TS.REVRANGE", new SampleBlockDecoder());
+    RedisCommand TS_MRANGE_BLOCK = new RedisCommand<>("TS.MRANGE", new TimeSeriesBlockDecoder());
+    RedisCommand TS_MREVRANGE = new RedisCommand<>("TS.MREVRANGE", new ListMultiDecoder2(new TimeSeriesDecoder(), new CodecDecoder(), new CodecDecoder(), new CodecDecoder()));
+    RedisCommand TS_MREVRANGE_BLOCK = new RedisCommand<>("TS.MREVRANGE", new TimeSeriesBlockDecoder());
+    RedisCommand TS_DEL = new RedisCommand<>("TS.DEL", new LongReplayConvertor());
 }
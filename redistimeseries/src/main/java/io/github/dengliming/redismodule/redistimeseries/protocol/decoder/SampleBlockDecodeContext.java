@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries.protocol.decoder;
+
+import io.github.dengliming.redismodule.redistimeseries.SampleBlock;
+import org.redisson.client.handler.State;
+
+/**
+ * Per-reply state of the column-wise decoders, kept in {@link State#getValue()} because
+ * decoder instances are shared by all commands.
+ *
+ * @author dengliming
+ */
+final class SampleBlockDecodeContext {
+
+    private SampleBlock block;
+    private double pendingValue;
+    private boolean inLabels;
+
+    private SampleBlockDecodeContext() {
+    }
+
+    static SampleBlockDecodeContext get(State state) {
+        Object value = state.getValue();
+        if (value instanceof SampleBlockDecodeContext) {
+            return (SampleBlockDecodeContext) value;
+        }
+        SampleBlockDecodeContext context = new SampleBlockDecodeContext();
+        state.setValue(context);
+        return context;
+    }
+
+    static void clear(State state) {
+        state.setValue(null);
+    }
+
+    void setPendingValue(double pendingValue) {
+        this.pendingValue = pendingValue;
+    }
+
+    void addSample(long timestamp) {
+        if (block == null) {
+            block = new SampleBlock();
+        }
+        block.add(timestamp, pendingValue);
+    }
+
+    SampleBlock finishBlock() {
+        SampleBlock finished = block == null ? new SampleBlock(0) : block;
+        block = null;
+        return finished;
+    }
+
+    void startSeries() {
+        inLabels = true;
+    }
+
+    void endLabels() {
+        inLabels = false;
+    }
+
+    boolean isInLabels() {
+        return inLabels;
+    }
+}
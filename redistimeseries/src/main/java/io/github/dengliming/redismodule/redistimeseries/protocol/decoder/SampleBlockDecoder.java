@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries.protocol.decoder;
+
+import io.github.dengliming.redismodule.redistimeseries.SampleBlock;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.decoder.MultiDecoder;
+
+import java.util.List;
+
+/**
+ * Decodes a TS.RANGE / TS.REVRANGE reply into a {@link SampleBlock}.
+ *
+ * @author dengliming
+ */
+public class SampleBlockDecoder implements MultiDecoder<Object> {
+
+    @Override
+    public Decoder<Object> getDecoder(Codec codec, int paramNum, State state) {
+        if (state.getLevel() == 1 && paramNum == 1) {
+            return SampleValueDecoder.INSTANCE;
+        }
+        return MultiDecoder.super.getDecoder(codec, paramNum, state);
+    }
+
+    /**
+     * [[1588266627081, 13], [1588266627082, 26]]
+     *
+     * @param parts
+     * @param state
+     * @return
+     */
+    @Override
+    public Object decode(List<Object> parts, State state) {
+        SampleBlockDecodeContext context = SampleBlockDecodeContext.get(state);
+        if (state.getLevel() == 0) {
+            SampleBlock block = context.finishBlock();
+            SampleBlockDecodeContext.clear(state);
+            return block;
+        }
+        context.addSample((Long) parts.get(0));
+        return null;
+    }
+}
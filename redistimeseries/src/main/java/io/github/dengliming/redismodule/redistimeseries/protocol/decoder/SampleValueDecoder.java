@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries.protocol.decoder;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses a sample value straight from the reply buffer into the current {@link SampleBlockDecodeContext},
+ * without creating a String or a boxed Double.
+ *
+ * @author dengliming
+ */
+final class SampleValueDecoder implements Decoder<Object> {
+
+    static final SampleValueDecoder INSTANCE = new SampleValueDecoder();
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private SampleValueDecoder() {
+    }
+
+    @Override
+    public Object decode(ByteBuf buf, State state) {
+        SampleBlockDecodeContext.get(state).setPendingValue(parseDouble(buf));
+        return null;
+    }
+
+    /**
+     * Parse a decimal number. Numbers whose digits fit in 53 bits and whose decimal exponent is at most 22
+     * are converted with a single exact multiplication or division, everything else falls back to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param buf
+     * @return
+     */
+    static double parseDouble(ByteBuf buf) {
+        int index = buf.readerIndex();
+        int end = buf.writerIndex();
+        boolean negative = false;
+        if (index < end && (buf.getByte(index) == '-' || buf.getByte(index) == '+')) {
+            negative = buf.getByte(index) == '-';
+            index++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean dot = false;
+        for (; index < end; index++) {
+            byte b = buf.getByte(index);
+            if (b >= '0' && b <= '9') {
+                if (mantissa > (MAX_EXACT_MANTISSA - 10) / 10) {
+                    return slowParse(buf);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (dot) {
+                    exponent--;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return slowParse(buf);
+        }
+        if (index < end) {
+            byte b = buf.getByte(index);
+            if (b != 'e' && b != 'E') {
+                return slowParse(buf);
+            }
+            index++;
+            boolean negativeExponent = false;
+            if (index < end && (buf.getByte(index) == '-' || buf.getByte(index) == '+')) {
+                negativeExponent = buf.getByte(index) == '-';
+                index++;
+            }
+            int value = 0;
+            int expDigits = 0;
+            for (; index < end; index++) {
+                b = buf.getByte(index);
+                if (b < '0' || b > '9' || value > POWERS_OF_TEN.length * 2) {
+                    return slowParse(buf);
+                }
+                value = value * 10 + (b - '0');
+                expDigits++;
+            }
+            if (expDigits == 0) {
+                return slowParse(buf);
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (exponent < -(POWERS_OF_TEN.length - 1) || exponent > POWERS_OF_TEN.length - 1) {
+            return slowParse(buf);
+        }
+
+        double result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -result : result;
+    }
+
+    private static double slowParse(ByteBuf buf) {
+        String value = buf.toString(StandardCharsets.US_ASCII);
+        switch (value) {
+            case "inf":
+            case "+inf":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+            case "-nan":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+}
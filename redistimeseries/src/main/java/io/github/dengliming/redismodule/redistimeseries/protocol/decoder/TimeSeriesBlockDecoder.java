@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries.protocol.decoder;
+
+import io.github.dengliming.redismodule.redistimeseries.Label;
+import io.github.dengliming.redismodule.redistimeseries.SampleBlock;
+import io.github.dengliming.redismodule.redistimeseries.TimeSeries;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.decoder.MultiDecoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a TS.MRANGE / TS.MREVRANGE reply into {@link TimeSeries} whose samples are kept in a {@link SampleBlock}.
+ *
+ * @author dengliming
+ */
+public class TimeSeriesBlockDecoder implements MultiDecoder<Object> {
+
+    @Override
+    public Decoder<Object> getDecoder(Codec codec, int paramNum, State state) {
+        SampleBlockDecodeContext context = SampleBlockDecodeContext.get(state);
+        if (state.getLevel() == 1) {
+            // the key of a series, its labels come next
+            context.startSeries();
+        } else if (state.getLevel() == 3 && paramNum == 1 && !context.isInLabels()) {
+            return SampleValueDecoder.INSTANCE;
+        }
+        return MultiDecoder.super.getDecoder(codec, paramNum, state);
+    }
+
+    /**
+     * [[temperature:2:33, [[label1, test], [label2, test1]], [[1588266627081, 13], [1588266627082, 26]]]]
+     *
+     * @param parts
+     * @param state
+     * @return
+     */
+    @Override
+    public Object decode(List<Object> parts, State state) {
+        SampleBlockDecodeContext context = SampleBlockDecodeContext.get(state);
+        switch (state.getLevel()) {
+            case 0:
+                SampleBlockDecodeContext.clear(state);
+                List<TimeSeries> timeSeries = new ArrayList<>(parts.size());
+                for (Object part : parts) {
+                    timeSeries.add((TimeSeries) part);
+                }
+                return timeSeries;
+            case 1:
+                return new TimeSeries((String) parts.get(0))
+                        .labels((List<Label>) parts.get(1))
+                        .sampleBlock((SampleBlock) parts.get(2));
+            case 2:
+                if (context.isInLabels()) {
+                    context.endLabels();
+                    List<Label> labels = new ArrayList<>(parts.size());
+                    for (Object part : parts) {
+                        labels.add((Label) part);
+                    }
+                    return labels;
+                }
+                return context.finishBlock();
+            default:
+                if (context.isInLabels()) {
+                    return new Label((String) parts.get(0), (String) parts.get(1));
+                }
+                context.addSample((Long) parts.get(0));
+                return null;
+        }
+    }
+}
@@ -44,6 +44,10 @@ public abstract class AbstractTest {
         }
     }
 
+    public RedisTimeSeriesClient getRedisTimeSeriesClient() {
+        return redisTimeSeriesClient;
+    }
+
     public RedisTimeSeries getRedisTimeSeries() {
         return redisTimeSeriesClient == null ? null : redisTimeSeriesClient.getRedisTimeSeries();
     }
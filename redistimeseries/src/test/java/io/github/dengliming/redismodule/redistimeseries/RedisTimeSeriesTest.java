@@ -16,12 +16,16 @@
 
 package io.github.dengliming.redismodule.redistimeseries;
 
+import org.assertj.core.groups.Tuple;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 import org.redisson.client.RedisException;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -65,6 +69,20 @@ public class RedisTimeSeriesTest extends AbstractTest {
         assertThat(result.get(1).longValue()).isEqualTo(timestamp + 2);
     }
 
+    @Test
+    public void testMultiKeyAdd() {
+        RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
+        long timestamp = System.currentTimeMillis();
+        List<Long> result = redisTimeSeries.add(new Sample("temperature:1", Value.of(timestamp, 1)),
+                new Sample("temperature:2", Value.of(timestamp + 1, 2)),
+                new Sample("temperature:3", Value.of(timestamp + 2, 3)),
+                new Sample("temperature:1", Value.of(timestamp + 3, 4)));
+        assertThat(result).containsExactly(timestamp, timestamp + 1, timestamp + 2, timestamp + 3);
+        assertThat(redisTimeSeries.range("temperature:1", timestamp, timestamp + 3))
+                .extracting(Value::getTimestamp, Value::getValue)
+                .containsExactly(tuple(timestamp, 1.0d), tuple(timestamp + 3, 4.0d));
+    }
+
     @Test
     public void testAddOnDuplicate() {
         RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
@@ -166,6 +184,147 @@ public class RedisTimeSeriesTest extends AbstractTest {
         assertThat(timeSeries).isEmpty();
     }
 
+    @Test
+    public void testRangeBlock() {
+        RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
+        TimeSeriesOptions options = new TimeSeriesOptions().labels(new Label("sensor_id", "2"));
+        assertThat(redisTimeSeries.add(new Sample("temperature:2:33", Value.of(1000L, 13.5d)), options).longValue()).isEqualTo(1000L);
+        assertThat(redisTimeSeries.add(new Sample("temperature:2:33", Value.of(2000L, -2.25d)), options).longValue()).isEqualTo(2000L);
+
+        SampleBlock block = redisTimeSeries.rangeBlock("temperature:2:33", 0, 3000L, null);
+        assertThat(block.getTimestamps()).containsExactly(1000L, 2000L);
+        assertThat(block.getValues()).containsExactly(13.5d, -2.25d);
+
+        block = redisTimeSeries.revRangeBlock("temperature:2:33", 0, 3000L, new RangeOptions().max(1));
+        assertThat(block.getTimestamps()).containsExactly(2000L);
+
+        List<TimeSeries> timeSeries = redisTimeSeries.mrangeBlock(0, 3000L, new RangeOptions().withLabels(), null, "sensor_id=2");
+        assertThat(timeSeries).hasSize(1);
+        assertThat(timeSeries.get(0).getKey()).isEqualTo("temperature:2:33");
+        assertThat(timeSeries.get(0).getLabels()).extracting(Label::getKey, Label::getValue).containsExactly(tuple("sensor_id", "2"));
+        assertThat(timeSeries.get(0).getSampleBlock().getValues()).containsExactly(13.5d, -2.25d);
+        assertThat(timeSeries.get(0).getValues()).extracting(Value::getTimestamp).containsExactly(1000L, 2000L);
+    }
+
+    @Test
+    public void testRangeIterator() {
+        RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
+        String key = "temperature:2:34";
+        for (long i = 1; i <= 10; i++) {
+            redisTimeSeries.add(new Sample(key, Value.of(i * 1000L, i)));
+        }
+
+        Iterator<SampleBlock> iterator = redisTimeSeries.rangeIterator(key, 0, 10000L, null, 4, true);
+        List<Long> timestamps = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        while (iterator.hasNext()) {
+            SampleBlock block = iterator.next();
+            pageSizes.add(block.size());
+            for (long timestamp : block.getTimestamps()) {
+                timestamps.add(timestamp);
+            }
+        }
+        assertThat(pageSizes).containsExactly(4, 4, 2);
+        assertThat(timestamps).hasSize(10).isSorted();
+
+        iterator = redisTimeSeries.revRangeIterator(key, 0, 10000L, null, 5, false);
+        assertThat(iterator.next().getTimestamp(0)).isEqualTo(10000L);
+        assertThat(iterator.next().getTimestamp(4)).isEqualTo(1000L);
+        assertThat(iterator.hasNext()).isFalse();
+
+        assertThat(redisTimeSeries.rangeStream(key, 3000L, 10000L, null, 3).mapToDouble(Value::getValue).sum()).isEqualTo(52d);
+    }
+
+    @Test
+    public void testRevRangeIteratorAggregation() {
+        RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
+        String key = "temperature:2:35";
+        for (long i = 1; i <= 20; i++) {
+            redisTimeSeries.add(new Sample(key, Value.of(i * 1000L, i)));
+        }
+
+        // two buckets per page, so every page boundary falls between two full buckets
+        RangeOptions options = new RangeOptions().aggregationType(Aggregation.SUM, 5000L);
+        assertThat(collect(redisTimeSeries.revRangeIterator(key, 0, 20000L, options, 2, true)))
+                .containsExactly(tuple(20000L, 20d), tuple(15000L, 85d), tuple(10000L, 60d), tuple(5000L, 35d), tuple(0L, 10d));
+
+        options = new RangeOptions().aggregationType(Aggregation.SUM, 5000L, Align.END);
+        assertThat(collect(redisTimeSeries.revRangeIterator(key, 0, 19500L, options, 2, false)))
+                .containsExactlyElementsOf(toTuples(redisTimeSeries.revRange(key, 0, 19500L, options)));
+    }
+
+    @Test
+    public void testRangeIteratorBucketTimestamp() {
+        RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
+        String key = "temperature:2:36";
+        for (long i = 1; i <= 20; i++) {
+            redisTimeSeries.add(new Sample(key, Value.of(i * 1000L, i)));
+        }
+
+        for (BucketTimestamp bucketTimestamp : BucketTimestamp.values()) {
+            RangeOptions options = new RangeOptions().aggregationType(Aggregation.SUM, 3000L).bucketTimestamp(bucketTimestamp);
+            assertThat(collect(redisTimeSeries.rangeIterator(key, 0, 20000L, options, 2, true)))
+                    .containsExactlyElementsOf(toTuples(redisTimeSeries.range(key, 0, 20000L, options)));
+            assertThat(collect(redisTimeSeries.revRangeIterator(key, 0, 20000L, options, 2, true)))
+                    .containsExactlyElementsOf(toTuples(redisTimeSeries.revRange(key, 0, 20000L, options)));
+        }
+    }
+
+    @Test
+    public void testMergeGroups() {
+        List<Label> labels = Arrays.asList(new Label("sensor", "1"), new Label("__reducer__", "sum"), new Label("__source__", "t:1"));
+        List<Label> otherLabels = Arrays.asList(new Label("sensor", "1"), new Label("__reducer__", "sum"), new Label("__source__", "t:2"));
+        TimeSeries node1 = new TimeSeries("sensor=1").labels(labels).values(Arrays.asList(Value.of(1000L, 1d), Value.of(2000L, 2d)));
+        TimeSeries node2 = new TimeSeries("sensor=1").labels(otherLabels).values(Arrays.asList(Value.of(2000L, 5d), Value.of(3000L, 3d)));
+        TimeSeries other = new TimeSeries("sensor=2").values(Arrays.asList(Value.of(1000L, 4d)));
+
+        List<TimeSeries> merged = GroupMerger.merge(Arrays.asList(node1, other, node2), Reducer.SUM, false, 0);
+        assertThat(merged).extracting(TimeSeries::getKey).containsExactly("sensor=1", "sensor=2");
+        assertThat(merged.get(0).getValues()).extracting(Value::getValue).containsExactly(1d, 7d, 3d);
+        assertThat(merged.get(0).getLabels()).extracting(Label::getValue).containsExactly("1", "sum", "t:1,t:2");
+
+        merged = GroupMerger.merge(Arrays.asList(node1, node2), Reducer.MAX, false, 0);
+        assertThat(merged.get(0).getValues()).extracting(Value::getValue).containsExactly(1d, 5d, 3d);
+
+        assertThat(GroupMerger.merge(Arrays.asList(node1, node2), Reducer.AVG, false, 0)).hasSize(2);
+
+        // COUNT applies per node, the merged series is cut back to it
+        merged = GroupMerger.merge(Arrays.asList(node1, node2), Reducer.SUM, false, 2);
+        assertThat(merged.get(0).getValues()).extracting(Value::getTimestamp).containsExactly(1000L, 2000L);
+
+        // one sample per node gives no hint of the order, MREVRANGE results must stay descending
+        TimeSeries single1 = new TimeSeries("sensor=1").values(Arrays.asList(Value.of(1000L, 1d)));
+        TimeSeries single2 = new TimeSeries("sensor=1").values(Arrays.asList(Value.of(3000L, 3d)));
+        merged = GroupMerger.merge(Arrays.asList(single1, single2), Reducer.SUM, true, 0);
+        assertThat(merged.get(0).getValues()).extracting(Value::getTimestamp).containsExactly(3000L, 1000L);
+    }
+
+    @Test
+    public void testFilterAndDelete() {
+        RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
+        String key = "temperature:2:35";
+        TimeSeriesOptions options = new TimeSeriesOptions().labels(new Label("sensor_id", "35"));
+        for (long i = 1; i <= 6; i++) {
+            redisTimeSeries.add(new Sample(key, Value.of(i * 1000L, i)), options);
+        }
+
+        List<Value> values = redisTimeSeries.range(key, 0, 10000L, new RangeOptions().filterByTimestamps(2000L, 4000L, 5000L).filterByValue(3, 6));
+        assertThat(values).extracting(Value::getTimestamp).containsExactly(4000L, 5000L);
+
+        values = redisTimeSeries.range(key, 0, 10000L, new RangeOptions()
+                .aggregationType(Aggregation.COUNT, 1000L)
+                .bucketTimestamp(BucketTimestamp.END)
+                .filterByValue(2, 2));
+        assertThat(values).extracting(Value::getTimestamp).containsExactly(3000L);
+
+        List<TimeSeries> timeSeries = redisTimeSeries.mrevrange(0, 10000L, new RangeOptions().max(2).latest(), null, "sensor_id=35");
+        assertThat(timeSeries).hasSize(1);
+        assertThat(timeSeries.get(0).getValues()).extracting(Value::getTimestamp).containsExactly(6000L, 5000L);
+
+        assertThat(redisTimeSeries.del(key, 2000L, 4000L)).isEqualTo(3L);
+        assertThat(redisTimeSeries.range(key, 0, 10000L)).extracting(Value::getTimestamp).containsExactly(1000L, 5000L, 6000L);
+    }
+
     @Test
     public void testAggregations() {
         RedisTimeSeries redisTimeSeries = getRedisTimeSeries();
@@ -374,4 +533,23 @@ public class RedisTimeSeriesTest extends AbstractTest {
         assertThat((List<List<Object>>) map.get("labels")).hasSize(2);
         assertThat(((List<List<Object>>) map.get("labels")).get(0)).contains("label1");
     }
+
+    private static List<Tuple> collect(Iterator<SampleBlock> iterator) {
+        List<Tuple> values = new ArrayList<>();
+        while (iterator.hasNext()) {
+            SampleBlock block = iterator.next();
+            for (int i = 0; i < block.size(); i++) {
+                values.add(tuple(block.getTimestamp(i), block.getValue(i)));
+            }
+        }
+        return values;
+    }
+
+    private static List<Tuple> toTuples(List<Value> values) {
+        List<Tuple> tuples = new ArrayList<>(values.size());
+        for (Value value : values) {
+            tuples.add(tuple(value.getTimestamp(), value.getValue()));
+        }
+        return tuples;
+    }
 }
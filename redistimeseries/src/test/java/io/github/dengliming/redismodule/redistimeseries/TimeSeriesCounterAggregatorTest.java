@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author dengliming
+ */
+public class TimeSeriesCounterAggregatorTest extends AbstractTest {
+
+    @Test
+    public void testIncrement() throws InterruptedException {
+        TimeSeriesCounterAggregator aggregator = getRedisTimeSeriesClient().createTimeSeriesCounterAggregator(
+                new TimeSeriesCounterAggregatorOptions()
+                        .flushIntervalMillis(20)
+                        .timeSeriesOptions(new TimeSeriesOptions().labels(new Label("type", "counter"))));
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    aggregator.increment("counter:requests");
+                    aggregator.incrBy("counter:bytes", 0.5d);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        aggregator.close();
+
+        assertThat(aggregator.getPending("counter:requests")).isZero();
+        assertThat(aggregator.getFailedKeys()).isZero();
+        assertThat(aggregator.getFlushedKeys()).isLessThan(40000L);
+        assertThat(getRedisTimeSeries().get("counter:requests").getValue()).isEqualTo(40000d);
+        assertThat(getRedisTimeSeries().get("counter:bytes").getValue()).isEqualTo(20000d);
+    }
+
+    @Test
+    public void testFractionalIncrements() throws InterruptedException {
+        TimeSeriesCounterAggregator aggregator = getRedisTimeSeriesClient().createTimeSeriesCounterAggregator(
+                new TimeSeriesCounterAggregatorOptions().flushIntervalMillis(5));
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    aggregator.incrBy("counter:fraction", 0.1d);
+                    aggregator.incrBy("counter:fraction", 0.2d);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        aggregator.flush();
+
+        // nothing is left behind by the drain, so later flushes send nothing
+        assertThat(aggregator.getPending("counter:fraction")).isZero();
+        long flushedKeys = aggregator.getFlushedKeys();
+        aggregator.flush();
+        aggregator.flush();
+        assertThat(aggregator.getFlushedKeys()).isEqualTo(flushedKeys);
+        aggregator.close();
+
+        assertThat(getRedisTimeSeries().get("counter:fraction").getValue()).isCloseTo(12000d, within(1e-6));
+    }
+
+    @Test
+    public void testIdleKeysEvicted() {
+        TimeSeriesCounterAggregator aggregator = getRedisTimeSeriesClient().createTimeSeriesCounterAggregator(
+                new TimeSeriesCounterAggregatorOptions()
+                        .flushIntervalMillis(60000)
+                        .maxIdleFlushes(2));
+        aggregator.incrBy("counter:idle", 2L);
+        aggregator.flush();
+        assertThat(aggregator.getTrackedKeys()).isEqualTo(1);
+        aggregator.flush();
+        aggregator.flush();
+        assertThat(aggregator.getTrackedKeys()).isZero();
+
+        aggregator.incrBy("counter:idle", 3L);
+        aggregator.close();
+        assertThat(getRedisTimeSeries().get("counter:idle").getValue()).isEqualTo(5d);
+    }
+
+    @Test
+    public void testEvictionRacingWithIncrements() throws InterruptedException {
+        TimeSeriesCounterAggregator aggregator = getRedisTimeSeriesClient().createTimeSeriesCounterAggregator(
+                new TimeSeriesCounterAggregatorOptions()
+                        .flushIntervalMillis(1)
+                        .maxIdleFlushes(1));
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 20000; j++) {
+                    aggregator.increment("counter:evicted");
+                    if (j % 100 == 0) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        aggregator.close();
+
+        assertThat(aggregator.getFailedKeys()).isZero();
+        assertThat(getRedisTimeSeries().get("counter:evicted").getValue()).isEqualTo(80000d);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 dengliming.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.dengliming.redismodule.redistimeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.dengliming.redismodule.redistimeseries.Sample.Value;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author dengliming
+ */
+public class TimeSeriesWriterTest extends AbstractTest {
+
+    @Test
+    public void testWrite() {
+        TimeSeriesWriter writer = getRedisTimeSeriesClient().createTimeSeriesWriter(new TimeSeriesWriterOptions()
+                .batchSize(10)
+                .samplesPerCommand(4)
+                .lingerMillis(50));
+        for (int i = 1; i <= 25; i++) {
+            writer.add(new Sample("writer:" + (i % 3), Value.of(i, i)));
+        }
+        writer.close();
+
+        assertThat(writer.getFlushedSamples()).isEqualTo(25);
+        assertThat(writer.getFailedSamples()).isZero();
+        assertThat(writer.getBufferedSamples()).isZero();
+        assertThat(writer.getFlushCount()).isGreaterThanOrEqualTo(3);
+
+        List<Value> values = getRedisTimeSeries().range("writer:0", 0, 100);
+        assertThat(values).extracting(Value::getTimestamp).containsExactly(3L, 6L, 9L, 12L, 15L, 18L, 21L, 24L);
+    }
+
+    @Test
+    public void testCloseWhileAdding() throws Exception {
+        TimeSeriesWriter writer = getRedisTimeSeriesClient().createTimeSeriesWriter(new TimeSeriesWriterOptions()
+                .batchSize(50)
+                .lingerMillis(5));
+        AtomicLong accepted = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            String key = "writer:close:" + t;
+            executor.execute(() -> {
+                started.countDown();
+                for (int i = 1; ; i++) {
+                    try {
+                        writer.add(new Sample(key, Value.of(i, i)));
+                    } catch (IllegalStateException e) {
+                        return;
+                    }
+                    accepted.incrementAndGet();
+                }
+            });
+        }
+        started.await();
+        Thread.sleep(50);
+        writer.close();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(writer.getBufferedSamples()).isZero();
+        assertThat(writer.getFlushedSamples() + writer.getFailedSamples()).isEqualTo(accepted.get());
+        assertThat(writer.getFlushErrors()).isZero();
+    }
+}